@@ -0,0 +1,284 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * BatchRunner plays games without any prompts, for scripted benchmark runs.
+ * Every pack is played the given number of times in one JVM, reusing games
+ * through a CardGamePool, and one record per game is written as CSV or as
+ * JSON Lines.
+ *
+ * Usage:
+ * CardGame --batch --players <n> --pack <path> [--pack <path> ...]
+ *          [--repeat <count>] [--format csv|json] [--results <path>]
+ *          [--output <dir>] [--log-level OFF|SUMMARY|FULL] [--pack-cache <dir>]
+ *          [--stall-timeout <millis>]
+ *
+ * With --pack-cache, packs are loaded through a PackCache in that directory.
+ * Each pack is analyzed before it is played; packs that can never be won are
+ * skipped. A game that makes no progress for the stall timeout (default one
+ * minute) is stopped by its watchdog, so one endless game cannot hang the
+ * sweep. With --stall-timeout 0 the watchdog is off and packs that no
+ * simulated game won are skipped too.
+ */
+public class BatchRunner {
+    private static final String[] COLUMNS = { "pack", "run", "players", "winner", "turns",
+            "wall_ms", "setup_ms", "shutdown_ms", "stragglers", "start_skew_ms", "first_turn_max_ms" };
+    public static final long DEFAULT_STALL_TIMEOUT_MILLIS = 60000;
+
+    private final int numberOfPlayers;
+    private final List<File> packFiles;
+    private final int repeat;
+    private final OutputFormat format;
+    private final File outputDir;
+    private final LogLevel logLevel;
+    private PackCache packCache;
+    private long stallTimeoutMillis = DEFAULT_STALL_TIMEOUT_MILLIS;
+
+    /**
+     * Constructor sets up a batch of games
+     *
+     * @param numberOfPlayers Players in every game.
+     * @param packFiles       Packs to play, each repeat times.
+     * @param repeat          Games played per pack.
+     * @param format          Format of the result records.
+     * @param outputDir       Directory for the games' player and deck files.
+     * @param logLevel        How much each player writes to its output file.
+     */
+    public BatchRunner(int numberOfPlayers, List<File> packFiles, int repeat, OutputFormat format,
+            File outputDir, LogLevel logLevel) {
+        if (numberOfPlayers <= 0) {
+            throw new IllegalArgumentException("Number of players must be positive");
+        }
+        if (packFiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one pack is required");
+        }
+        if (repeat <= 0) {
+            throw new IllegalArgumentException("Repeat count must be positive");
+        }
+        this.numberOfPlayers = numberOfPlayers;
+        this.packFiles = packFiles;
+        this.repeat = repeat;
+        this.format = format;
+        this.outputDir = outputDir;
+        this.logLevel = logLevel;
+    }
+
+    /* Set a cache to load packs through, or null to parse every pack file */
+    public void setPackCache(PackCache packCache) {
+        this.packCache = packCache;
+    }
+
+    /**
+     * Set how long a game may go without progress before its watchdog stops
+     * it, or 0 to turn the watchdog off
+     */
+    public void setStallTimeout(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Stall timeout must not be negative");
+        }
+        this.stallTimeoutMillis = millis;
+    }
+
+    /**
+     * Plays every game and writes one record per game to out. Packs that
+     * cannot be read or played are reported on stderr and skipped. Returns
+     * the number of games played.
+     */
+    public int run(PrintWriter out) {
+        CardGamePool pool = new CardGamePool(game -> {
+            game.setOutputDirectory(outputDir);
+            game.setLogLevel(logLevel);
+            game.setStallTimeout(stallTimeoutMillis);
+        });
+        if (format == OutputFormat.CSV) {
+            out.println(String.join(",", COLUMNS));
+        }
+
+        int played = 0;
+        try {
+            for (File packFile : packFiles) {
+                List<Integer> pack;
+                try {
+                    pack = loadAndCheck(packFile);
+                } catch (IllegalArgumentException | IOException e) {
+                    System.err.println("Error: " + packFile + ": " + e.getMessage());
+                    continue;
+                }
+
+                for (int run = 1; run <= repeat; run++) {
+                    long begin = System.nanoTime();
+                    CardGame game = pool.acquire(numberOfPlayers, pack);
+                    long setupNanos = System.nanoTime() - begin;
+                    ShutdownReport shutdown = game.startGame();
+                    long wallNanos = System.nanoTime() - begin;
+                    if (shutdown == null) {
+                        // A failed game is not reused; closing it stops its player threads
+                        game.close();
+                        System.err.println("Error: " + packFile + " run " + run + " failed");
+                        continue;
+                    }
+
+                    StartMetrics start = game.getStartMetrics();
+                    Object[] values = { packFile.getPath(), run, numberOfPlayers, game.getWinner(),
+                            game.getTotalTurns(), millis(wallNanos), millis(setupNanos),
+                            shutdown.getStopMillis() + shutdown.getOutputMillis(),
+                            shutdown.getStragglers().size(), millis(start.getSkewNanos()),
+                            millis(start.getFirstTurnLatencies().getMaxNanos()) };
+                    out.println(format == OutputFormat.CSV ? toCsv(values) : toJson(values));
+                    out.flush();
+                    // A straggler would play on in the next game dealt to this one, and
+                    // it holds a pooled thread the next game needs, so only clean games are reused
+                    if (shutdown.getStragglers().isEmpty()) {
+                        pool.release(game);
+                    } else {
+                        game.close();
+                    }
+                    played++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error during batch: " + e.getMessage());
+        } finally {
+            pool.close();
+        }
+        return played;
+    }
+
+    /* Loads a pack and rejects it if it does not fit the player count or may never end */
+    private List<Integer> loadAndCheck(File packFile) throws IOException {
+        if (!packFile.exists()) {
+            throw new IllegalArgumentException("File not found");
+        }
+        if (packCache != null) {
+            CachedPack cached = packCache.load(packFile, numberOfPlayers);
+            checkSize(cached.size());
+            checkWinnable(cached.getAnalysis());
+            return cached.getCards();
+        }
+        List<Integer> pack = CardGame.loadPack(packFile);
+        checkSize(pack.size());
+        checkWinnable(PackAnalyzer.analyze(pack, numberOfPlayers, PackAnalyzer.QUICK_TURN_BUDGET));
+        return pack;
+    }
+
+    /* Rejects a pack that can never be won, or that may never end when no watchdog would stop it */
+    private void checkWinnable(PackAnalysis analysis) {
+        if (analysis.getWinnability() == PackAnalysis.Winnability.UNWINNABLE) {
+            throw new IllegalArgumentException("Pack can never produce a winner");
+        }
+        if (analysis.getWinnability() == PackAnalysis.Winnability.UNKNOWN && stallTimeoutMillis == 0) {
+            throw new IllegalArgumentException("No simulated game with this pack was won");
+        }
+    }
+
+    /* Rejects a pack that does not hold 8 cards per player */
+    private void checkSize(int cards) {
+        if (cards != numberOfPlayers * 8) {
+            throw new IllegalArgumentException(
+                    String.format("Pack must contain exactly %d cards", numberOfPlayers * 8));
+        }
+    }
+
+    /* Converts nanoseconds to milliseconds with three decimal places */
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /* Formats one record as a CSV row, quoting the pack path */
+    private static String toCsv(Object[] values) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('"').append(values[0].toString().replace("\"", "\"\"")).append('"');
+        for (int i = 1; i < values.length; i++) {
+            sb.append(',').append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    /* Formats one record as a single-line JSON object */
+    private static String toJson(Object[] values) {
+        StringBuilder sb = new StringBuilder("{\"").append(COLUMNS[0]).append("\": \"")
+                .append(values[0].toString().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        for (int i = 1; i < values.length; i++) {
+            sb.append(", \"").append(COLUMNS[i]).append("\": ").append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /* Parses the batch options and runs the games; see the class comment for usage */
+    public static void main(String[] args) {
+        int players = 0;
+        List<File> packs = new ArrayList<>();
+        int repeat = 1;
+        OutputFormat format = OutputFormat.CSV;
+        String results = null;
+        File outputDir = new File(".");
+        LogLevel logLevel = LogLevel.FULL;
+        PackCache packCache = null;
+        long stallTimeout = DEFAULT_STALL_TIMEOUT_MILLIS;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--players":
+                        players = Integer.parseInt(value);
+                        break;
+                    case "--pack":
+                        packs.add(new File(value));
+                        break;
+                    case "--repeat":
+                        repeat = Integer.parseInt(value);
+                        break;
+                    case "--format":
+                        format = OutputFormat.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--results":
+                        results = value;
+                        break;
+                    case "--output":
+                        outputDir = new File(value);
+                        break;
+                    case "--log-level":
+                        logLevel = LogLevel.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "--pack-cache":
+                        packCache = new PackCache(new File(value));
+                        break;
+                    case "--stall-timeout":
+                        stallTimeout = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            BatchRunner runner = new BatchRunner(players, packs, repeat, format, outputDir, logLevel);
+            runner.setPackCache(packCache);
+            runner.setStallTimeout(stallTimeout);
+            if (results == null) {
+                results = "results." + format.getExtension();
+            }
+            try (PrintWriter out = new PrintWriter(new FileWriter(results))) {
+                int played = runner.run(out);
+                System.out.println(played + " games written to " + results);
+            }
+        } catch (IllegalArgumentException e) {
+            // Also covers invalid numbers and unknown formats or log levels
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: CardGame --batch --players <n> --pack <path> [--pack <path> ...]"
+                    + " [--repeat <count>] [--format csv|json] [--results <path>] [--output <dir>]"
+                    + " [--log-level OFF|SUMMARY|FULL] [--pack-cache <dir>] [--stall-timeout <millis>]");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error writing results: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * CacheLinePadding fills the start of an object with 60 bytes, so that the
+ * fields a subclass declares first never share a 64-byte cache line with the
+ * object allocated just before it. Fields of a superclass are always laid out
+ * before those of its subclasses, which is what makes this work; the int
+ * takes the gap after a compressed object header.
+ */
+abstract class CacheLinePadding {
+    int p0;
+    long p1, p2, p3, p4, p5, p6, p7;
+}
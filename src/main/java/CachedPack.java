@@ -0,0 +1,70 @@
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * CachedPack is a parsed pack together with the results of validating it:
+ * the count of each card value and, when the pack fits the player count it
+ * was loaded for, whether it can produce a winner.
+ */
+public class CachedPack {
+    private final int[] cards;
+    private final CardDictionary dictionary;
+    private final int numberOfPlayers;
+    private final PackAnalysis analysis;
+
+    /**
+     * Constructor records a validated pack
+     *
+     * @param cards           Card values in pack order.
+     * @param dictionary      Distinct card values of the pack and their counts.
+     * @param numberOfPlayers Player count the pack was analyzed for.
+     * @param analysis        Winnability for that player count, or null if the
+     *                        pack does not hold 8 cards per player.
+     */
+    public CachedPack(int[] cards, CardDictionary dictionary, int numberOfPlayers, PackAnalysis analysis) {
+        this.cards = cards;
+        this.dictionary = dictionary;
+        this.numberOfPlayers = numberOfPlayers;
+        this.analysis = analysis;
+    }
+
+    /* get method to return the number of cards */
+    public int size() {
+        return cards.length;
+    }
+
+    /* Returns the card values as a read-only list backed by the cached array */
+    public List<Integer> getCards() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return cards[index];
+            }
+
+            @Override
+            public int size() {
+                return cards.length;
+            }
+        };
+    }
+
+    /* Returns the card at a 0-based position in the pack */
+    int getCard(int index) {
+        return cards[index];
+    }
+
+    /* Returns the distinct card values and the number of copies of each */
+    public CardDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /* get method to return the player count the pack was analyzed for */
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    /* Returns the winnability of the pack, or null if it does not fit its player count */
+    public PackAnalysis getAnalysis() {
+        return analysis;
+    }
+}
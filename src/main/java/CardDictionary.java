@@ -0,0 +1,73 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CardDictionary maps the distinct card values of a pack to dense IDs
+ * 0..size()-1, in ascending order of value, and keeps the reverse table so
+ * output can still show the original values. Code that holds encoded cards
+ * can count or sort them with flat arrays indexed by ID instead of hashing.
+ */
+public class CardDictionary {
+    // Card value of each ID, ascending
+    private final int[] values;
+    // Number of copies of each ID in the pack
+    private final int[] counts;
+
+    /* Constructor builds the dictionary in one pass over the sorted pack */
+    public CardDictionary(List<Integer> pack) {
+        int[] sorted = new int[pack.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = pack.get(i);
+        }
+        Arrays.sort(sorted);
+
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        values = new int[distinct];
+        counts = new int[distinct];
+        int id = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                values[++id] = sorted[i];
+            }
+            counts[id]++;
+        }
+    }
+
+    /**
+     * Constructor restores a dictionary from its tables, as saved by a
+     * PackCache. Values must be distinct and ascending.
+     */
+    CardDictionary(int[] values, int[] counts) {
+        if (values.length != counts.length) {
+            throw new IllegalArgumentException("Need one count per card value");
+        }
+        this.values = values;
+        this.counts = counts;
+    }
+
+    /* Returns the number of distinct card values */
+    public int size() {
+        return values.length;
+    }
+
+    /* Returns the ID of a card value, or -1 if the pack does not contain it */
+    public int encode(int value) {
+        int id = Arrays.binarySearch(values, value);
+        return id < 0 ? -1 : id;
+    }
+
+    /* Returns the card value of an ID */
+    public int decode(int id) {
+        return values[id];
+    }
+
+    /* Returns how many cards of an ID the pack contains */
+    public int getCount(int id) {
+        return counts[id];
+    }
+}
@@ -1,11 +1,18 @@
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 /**
  * CardGame class manages the setup and execution of a card game
@@ -15,14 +22,50 @@ public class CardGame {
     // Constants for game set up
     private static final int CARDS_PER_PLAYER = 4;
     private static final int CARDS_PER_DECK = 4;
+    // Time players are given to stop once the game has ended
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 1000;
+    // Slots per deck for off-heap decks when no deck capacity is set
+    private static final int DEFAULT_OFF_HEAP_SLOTS = 16;
+    // Games with at least this many players build their ring in parallel
+    private static final int PARALLEL_SETUP_THRESHOLD = 1024;
 
     // To manage players, decks, and the pack of cards
     private final List<Player> players;
     private final List<Deck> decks;
     List<Integer> pack;
+    private CardDictionary dictionary;
     private final AtomicBoolean gameOver;
-    private final CountDownLatch gameEndLatch;
-    private final List<Thread> playerThreads;
+    private CountDownLatch gameEndLatch;
+    private final List<Integer> dealtHand;
+    private ExecutorService playerExecutor;
+    // Start structures sized for the player threads and reused by every game they play
+    private Runnable[] playerRunners;
+    private Thread[] playerThreads;
+    private long[] startNanos;
+    // 0 until the player's task starts, 1 while it runs, 2 once it has stopped
+    private AtomicIntegerArray playerStates;
+    private GameConditions startGate;
+    private volatile long releaseNanos;
+    private volatile CountDownLatch playersStopped;
+    private int deckCapacity = Deck.UNBOUNDED;
+    private WaitStrategy waitStrategy = WaitStrategy.SPIN_THEN_PARK;
+    private LogLevel logLevel = LogLevel.FULL;
+    // The watchdog is off unless a stall timeout is set
+    private long stallTimeoutMillis;
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+    private int logSegmentSize;
+    private boolean offHeapDecks;
+    private int turnBatchSize = 1;
+    private GameEventPublisher eventPublisher;
+    private File checkpointFile;
+    private long checkpointIntervalMillis;
+    private DeckStore deckStore;
+    private GameWatchdog watchdog;
+    private StartMetrics startMetrics;
+    private boolean recordLatencies;
+    private boolean printLatencyReport;
+    private OutputFormat latencyReportFormat;
+    private File outputDir = new File(".");
 
     // Constructor to initialzie the game components
     public CardGame() {
@@ -31,7 +74,200 @@ public class CardGame {
         this.pack = new ArrayList<>();
         this.gameOver = new AtomicBoolean(false);
         this.gameEndLatch = new CountDownLatch(1);
-        this.playerThreads = new ArrayList<>();
+        this.dealtHand = new ArrayList<>(CARDS_PER_PLAYER);
+    }
+
+    /**
+     * Set the maximum number of cards each deck may hold. A player whose right
+     * deck is full skips its turn until its neighbour draws. The capacity must
+     * be larger than the initial deal, otherwise no player could ever discard.
+     */
+    public void setDeckCapacity(int capacity) {
+        if (capacity <= CARDS_PER_DECK) {
+            throw new IllegalArgumentException(
+                    String.format("Deck capacity must be greater than %d cards", CARDS_PER_DECK));
+        }
+        this.deckCapacity = capacity;
+    }
+
+    /* Set the directory that receives the player and deck output files */
+    public void setOutputDirectory(File outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    /* Returns the ID of the winning player, or -1 if nobody has won */
+    public int getWinner() {
+        for (Player player : players) {
+            if (player.hasWon()) {
+                return Integer.parseInt(player.getPlayerId());
+            }
+        }
+        return -1;
+    }
+
+    /* Returns the dictionary of the current pack's card values */
+    public CardDictionary getCardDictionary() {
+        return dictionary;
+    }
+
+    /* Returns the number of turns completed by all players together */
+    public long getTotalTurns() {
+        long turns = 0;
+        for (Player player : players) {
+            turns += player.getTurnCount();
+        }
+        return turns;
+    }
+
+    /* Returns a copy of every deck's cards, in deck order */
+    public List<List<Integer>> getDeckContents() {
+        List<List<Integer>> contents = new ArrayList<>();
+        for (Deck deck : decks) {
+            contents.add(deck.getCards());
+        }
+        return contents;
+    }
+
+    /* Set how much each player writes to its output file */
+    public void setLogLevel(LogLevel logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    /**
+     * Set how long a game may go without progress before the watchdog stops
+     * it as if it had been won. Zero, the default, turns the watchdog off.
+     */
+    public void setStallTimeout(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Stall timeout must not be negative");
+        }
+        this.stallTimeoutMillis = millis;
+    }
+
+    /**
+     * Set how long players may take to stop once the game has ended. Players
+     * still running after this deadline are listed in the shutdown report.
+     */
+    public void setShutdownTimeout(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Shutdown timeout must be positive");
+        }
+        this.shutdownTimeoutMillis = millis;
+    }
+
+    /* Returns the watchdog's report if it stopped the last game, otherwise null */
+    public String getWatchdogReport() {
+        return watchdog == null ? null : watchdog.getReport();
+    }
+
+    /**
+     * Set how many players share one output file. With a segment size of
+     * zero, the default, each player writes its own "player<ID>_output.txt";
+     * otherwise players write to "players<first>-<last>_output.txt" so a
+     * large game keeps few files open.
+     */
+    public void setLogSegmentSize(int playersPerSegment) {
+        if (playersPerSegment < 0) {
+            throw new IllegalArgumentException("Log segment size must not be negative");
+        }
+        this.logSegmentSize = playersPerSegment;
+    }
+
+    /**
+     * Set whether decks keep their cards in one off-heap DeckStore instead of
+     * a list per deck, for very large rings. Off-heap decks are always
+     * bounded: by the deck capacity if one is set, otherwise 16 cards.
+     */
+    public void setOffHeapDecks(boolean offHeapDecks) {
+        this.offHeapDecks = offHeapDecks;
+    }
+
+    /**
+     * Set the publisher that receives every player's moves, or null to
+     * publish nothing. Applies to the current players and any created later.
+     */
+    public void setEventPublisher(GameEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        for (Player player : players) {
+            player.setEventPublisher(eventPublisher);
+        }
+    }
+
+    /**
+     * Set the most turns a player takes in one go when its left deck has a
+     * backlog. Applies to the current players and any created later.
+     */
+    public void setTurnBatchSize(int turnBatchSize) {
+        if (turnBatchSize <= 0) {
+            throw new IllegalArgumentException("Turn batch size must be positive");
+        }
+        this.turnBatchSize = turnBatchSize;
+        for (Player player : players) {
+            player.setTurnBatchSize(turnBatchSize);
+        }
+    }
+
+    /* Set how players wait for a card when their left deck is empty */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Returns a one-line summary of how long players waited on empty decks
+     * under the game's wait strategy: number of waits, mean and longest wait
+     */
+    public String getDeckWaitSummary() {
+        long waits = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+        for (Deck deck : decks) {
+            waits += deck.getWaitCount();
+            totalNanos += deck.getTotalWaitNanos();
+            maxNanos = Math.max(maxNanos, deck.getMaxWaitNanos());
+        }
+        long meanNanos = waits == 0 ? 0 : totalNanos / waits;
+        return String.format("%s waits=%d mean=%dns max=%dns", waitStrategy, waits, meanNanos, maxNanos);
+    }
+
+    /**
+     * Set whether players and decks keep latency histograms for
+     * getLatencyReport. Printing or writing the report turns them on too;
+     * otherwise no histogram is allocated.
+     */
+    public void setRecordLatencies(boolean record) {
+        this.recordLatencies = record;
+    }
+
+    /* Set whether startGame prints the turn and deck wait percentiles */
+    public void setPrintLatencyReport(boolean print) {
+        this.printLatencyReport = print;
+    }
+
+    /**
+     * Set the format of the latency report written next to the deck output
+     * files at the end of each game, or null to write no report
+     */
+    public void setLatencyReportFormat(OutputFormat format) {
+        this.latencyReportFormat = format;
+    }
+
+    /* Returns the turn and deck wait percentiles of the last game, empty if none were recorded */
+    public LatencyReport getLatencyReport() {
+        return new LatencyReport(players, decks);
+    }
+
+    /* Returns how the players of the last game were started, or null before the first game ends */
+    public StartMetrics getStartMetrics() {
+        return startMetrics;
+    }
+
+    /* Returns the largest number of cards each deck held, in deck order */
+    public List<Integer> getDeckHighWaterMarks() {
+        List<Integer> marks = new ArrayList<>();
+        for (Deck deck : decks) {
+            marks.add(deck.getHighWaterMark());
+        }
+        return marks;
     }
 
     /** Method to start the game with the number of players */
@@ -47,26 +283,267 @@ public class CardGame {
                     String.format("Pack must contain exactly %d cards", n * 8));
         }
 
+        // Give each distinct card value a dense ID; decks and hands hold IDs
+        dictionary = new CardDictionary(pack);
+
+        deckStore = null;
+        if (offHeapDecks) {
+            deckStore = new DeckStore(n, deckCapacity == Deck.UNBOUNDED ? DEFAULT_OFF_HEAP_SLOTS : deckCapacity);
+        }
+
+        // Create the shared output files, if players share them
+        LogSegment[] segments = new LogSegment[0];
+        if (logSegmentSize > 0) {
+            segments = new LogSegment[(n + logSegmentSize - 1) / logSegmentSize];
+            for (int k = 0; k < segments.length; k++) {
+                int first = k * logSegmentSize + 1;
+                int last = Math.min(n, first + logSegmentSize - 1);
+                segments[k] = new LogSegment(
+                        new File(outputDir, "players" + first + "-" + last + "_output.txt"));
+            }
+        }
+
+        if (n >= PARALLEL_SETUP_THRESHOLD) {
+            initializeInParallel(n, segments);
+            return;
+        }
+
         // Create decks for each player
         for (int i = 0; i < n; i++) {
-            decks.add(new Deck(i + 1));
+            Deck deck = createDeck(i);
+            deck.setCardDictionary(dictionary);
+            decks.add(deck);
         }
 
         // Deal initial hands to each palyer
         for (int i = 0; i < n; i++) {
-            List<Integer> initialHand = new ArrayList<>();
-            for (int j = 0; j < CARDS_PER_PLAYER; j++) {
-                initialHand.add(pack.get(i + j * n));
+            dealHand(i, n);
+            Player player = new Player(i + 1, dealtHand, decks.get(i),
+                    decks.get((i + 1) % n), gameOver, gameEndLatch, createLog(i + 1, segments));
+            player.setCardDictionary(dictionary);
+            player.setEventPublisher(eventPublisher);
+            player.setTurnBatchSize(turnBatchSize);
+            players.add(player);
+        }
+
+        dealDecks(n);
+    }
+
+    /**
+     * Builds and deals the ring on all cores. Every deck and player is
+     * independent once the pack is known, so each is created and dealt by
+     * whichever thread reaches it, into the same positions as the
+     * sequential path.
+     */
+    private void initializeInParallel(int n, LogSegment[] segments) throws IOException {
+        Deck[] deckArray = new Deck[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            Deck deck = createDeck(i);
+            deck.setCardDictionary(dictionary);
+            int start = n * CARDS_PER_PLAYER + i * CARDS_PER_DECK;
+            for (int j = 0; j < CARDS_PER_DECK; j++) {
+                deck.addToBottom(dictionary.encode(pack.get(start + j)));
+            }
+            deckArray[i] = deck;
+        });
+
+        Player[] playerArray = new Player[n];
+        try {
+            IntStream.range(0, n).parallel().forEach(i -> {
+                List<Integer> hand = new ArrayList<>(CARDS_PER_PLAYER);
+                for (int j = 0; j < CARDS_PER_PLAYER; j++) {
+                    hand.add(pack.get(i + j * n));
+                }
+                try {
+                    playerArray[i] = new Player(i + 1, hand, deckArray[i], deckArray[(i + 1) % n],
+                            gameOver, gameEndLatch, createLog(i + 1, segments));
+                    playerArray[i].setCardDictionary(dictionary);
+                    playerArray[i].setEventPublisher(eventPublisher);
+                    playerArray[i].setTurnBatchSize(turnBatchSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        decks.addAll(Arrays.asList(deckArray));
+        players.addAll(Arrays.asList(playerArray));
+    }
+
+    /* Creates the deck at a 0-based index, in the deck store if there is one */
+    private Deck createDeck(int index) {
+        if (deckStore != null) {
+            return new Deck(index + 1, waitStrategy, deckStore, index);
+        }
+        return new Deck(index + 1, deckCapacity, waitStrategy);
+    }
+
+    /* Opens a player's log, in its shared segment if players share files */
+    private PlayerLog createLog(int playerId, LogSegment[] segments) throws IOException {
+        if (segments.length > 0) {
+            return new PlayerLog(playerId, segments[(playerId - 1) / logSegmentSize], logLevel);
+        }
+        return new PlayerLog(playerId, new File(outputDir, "player" + playerId + "_output.txt"), logLevel);
+    }
+
+    /**
+     * Reinitializes an already initialized game for a new pack of the same
+     * size, reusing its decks, players, lists and player threads. Every
+     * player of the last game must have exited.
+     */
+    public void reset(List<Integer> newPack) throws IOException {
+        int n = players.size();
+        if (n == 0) {
+            throw new IllegalStateException("Game must be initialized before it can be reset");
+        }
+        if (!hasStopped()) {
+            throw new IllegalStateException("Game cannot be reset while players of the last game are running");
+        }
+        if (newPack.size() != n * 8) {
+            throw new IllegalArgumentException(
+                    String.format("Pack must contain exactly %d cards", n * 8));
+        }
+
+        this.pack = newPack;
+        // The threads, start gate, players and decks are reused. Each reset
+        // still allocates the new pack's dictionary, a new end latch, since a
+        // latch cannot be reset, and a new writer for every player's log;
+        // each game's end also copies every deck's cards to rebalance them.
+        dictionary = new CardDictionary(newPack);
+        gameOver.set(false);
+        gameEndLatch = new CountDownLatch(1);
+
+        for (Deck deck : decks) {
+            deck.reset();
+            deck.setCardDictionary(dictionary);
+        }
+        // Close every log first: a shared segment file is only truncated
+        // when its first player reopens it after all of them have let go
+        for (Player player : players) {
+            player.closeLog();
+        }
+        for (int i = 0; i < n; i++) {
+            dealHand(i, n);
+            players.get(i).reset(dealtHand, gameEndLatch, dictionary);
+        }
+        dealDecks(n);
+    }
+
+    /**
+     * Set a file to which startGame writes a checkpoint of the running game
+     * every intervalMillis, or a null file for no checkpoints
+     */
+    public void setCheckpoint(File file, long intervalMillis) {
+        if (file != null && intervalMillis <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.checkpointFile = file;
+        this.checkpointIntervalMillis = intervalMillis;
+    }
+
+    /**
+     * Captures the game as it is now, pausing the players only for the copy,
+     * and writes it to the given file
+     */
+    public GameCheckpoint checkpoint(File file) throws IOException {
+        GameCheckpoint checkpoint = GameCheckpoint.capture(players, decks, dictionary);
+        checkpoint.write(file);
+        return checkpoint;
+    }
+
+    /**
+     * Rebuilds the ring from a checkpoint of a game played with this game's
+     * pack, ready for startGame to continue it. The checkpoint must hold
+     * exactly the cards of the pack. Player output files restart from the
+     * checkpoint, logging its hands as the initial hands.
+     */
+    public void resume(File file) throws IOException {
+        GameCheckpoint checkpoint = GameCheckpoint.read(file);
+        int n = checkpoint.getNumberOfPlayers();
+        if (pack.size() != n * 8) {
+            throw new IllegalArgumentException(
+                    String.format("Checkpoint has %d players but the pack holds %d cards", n, pack.size()));
+        }
+
+        // Every card of the pack must be in the checkpoint, and nothing else
+        CardDictionary packDictionary = new CardDictionary(pack);
+        int[] counts = new int[packDictionary.size()];
+        for (int i = 0; i < n; i++) {
+            for (int[] cards : new int[][] { checkpoint.getDeck(i), checkpoint.getHand(i) }) {
+                for (int card : cards) {
+                    int id = packDictionary.encode(card);
+                    if (id == -1) {
+                        throw new IllegalArgumentException("Checkpoint holds card " + card + ", which is not in the pack");
+                    }
+                    counts[id]++;
+                }
+            }
+        }
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] != packDictionary.getCount(id)) {
+                throw new IllegalArgumentException("Checkpoint holds " + counts[id] + " cards of value "
+                        + packDictionary.decode(id) + " but the pack holds " + packDictionary.getCount(id));
+            }
+        }
+
+        if (players.isEmpty()) {
+            initializeGame(n);
+        } else {
+            reset(pack);
+        }
+        for (int i = 0; i < n; i++) {
+            int[] cards = checkpoint.getDeck(i);
+            Deck deck = decks.get(i);
+            if (cards.length > deck.getCapacity()) {
+                throw new IllegalArgumentException("Checkpoint deck " + (i + 1) + " holds more cards than its capacity");
+            }
+            deck.clear();
+            for (int card : cards) {
+                deck.addToBottom(dictionary.encode(card));
+            }
+            List<Integer> hand = new ArrayList<>(CARDS_PER_PLAYER);
+            for (int card : checkpoint.getHand(i)) {
+                hand.add(card);
             }
-            players.add(new Player(i + 1, initialHand, decks.get(i),
-                    decks.get((i + 1) % n), gameOver, gameEndLatch));
+            players.get(i).reset(hand, gameEndLatch, dictionary);
+            players.get(i).setTurnCount(checkpoint.getTurnCount(i));
         }
+    }
+
+    /* Returns the number of players the game was initialized for */
+    public int getNumberOfPlayers() {
+        return players.size();
+    }
 
-        // Distribute remaining cards to decks
+    /* Checking whether every player thread of the last game has exited, or none was ever started */
+    public boolean hasStopped() {
+        if (playerStates == null) {
+            return true;
+        }
+        for (int i = 0; i < playerStates.length(); i++) {
+            if (playerStates.get(i) != 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Collects the initial hand of the player at the given index into dealtHand */
+    private void dealHand(int i, int n) {
+        dealtHand.clear();
+        for (int j = 0; j < CARDS_PER_PLAYER; j++) {
+            dealtHand.add(pack.get(i + j * n));
+        }
+    }
+
+    /* Distribute remaining cards to decks */
+    private void dealDecks(int n) {
         int currentIndex = n * CARDS_PER_PLAYER;
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < CARDS_PER_DECK && currentIndex < pack.size(); j++) {
-                decks.get(i).addToBottom(pack.get(currentIndex++));
+                decks.get(i).addToBottom(dictionary.encode(pack.get(currentIndex++)));
             }
         }
     }
@@ -75,99 +552,353 @@ public class CardGame {
      * Method to balance all decks by redistributing their cards evenly
      */
     private void balanceDecks() {
-        try {
-            List<Integer> allCards = new ArrayList<>();
-
-            // Collect all cards from decks in order
-            for (Deck deck : decks) {
-                allCards.addAll(deck.getCards());
+        // Collect every deck's cards, one deck per task
+        int[][] deckCards = decks.parallelStream().map(Deck::getCardIds).toArray(int[][]::new);
+
+        // Count the cards of each ID. IDs follow card values, so reading
+        // the counts in ID order sorts the cards without comparisons.
+        int[] counts = new int[dictionary.size()];
+        int total = 0;
+        for (int[] cards : deckCards) {
+            for (int card : cards) {
+                counts[card]++;
             }
-
-            // Sort cards for consistent distribution
-            Collections.sort(allCards);
-
-            // Clear all decks to prepare for redistribution
-            for (Deck deck : decks) {
-                while (!deck.getCards().isEmpty()) {
-                    deck.drawFromTop();
-                }
+            total += cards.length;
+        }
+        int[] allCards = new int[total];
+        int next = 0;
+        for (int id = 0; id < counts.length; id++) {
+            for (int k = 0; k < counts[id]; k++) {
+                allCards[next++] = id;
             }
+        }
 
-            // Redistribute cards across decks
-            int cardsPerDeck = allCards.size() / decks.size();
-            int cardIndex = 0;
-
-            // ensure each deck gets at least the minimum required cards
-            for (int i = 0; i < cardsPerDeck; i++) {
-                for (Deck deck : decks) {
-                    if (cardIndex < allCards.size()) {
-                        deck.addToBottom(allCards.get(cardIndex++));
-                    }
-                }
+        // Deal the sorted cards round-robin. Deck i gets cards i, i + n,
+        // i + 2n and so on, so every deck can be refilled independently.
+        int n = decks.size();
+        int cardsPerDeck = total / n;
+        IntStream.range(0, n).parallel().forEach(i -> {
+            Deck deck = decks.get(i);
+            deck.clear();
+            for (int round = 0; round < cardsPerDeck; round++) {
+                deck.addToBottom(allCards[i + round * n]);
             }
+        });
 
-            // Distribute any remaining cards to decks with fewer than the maximum allowed
-            while (cardIndex < allCards.size()) {
-                for (Deck deck : decks) {
-                    if (deck.getCards().size() < CARDS_PER_DECK && cardIndex < allCards.size()) {
-                        deck.addToBottom(allCards.get(cardIndex++));
-                    }
+        // Distribute any remaining cards to decks with fewer than the maximum allowed
+        int cardIndex = cardsPerDeck * n;
+        while (cardIndex < total) {
+            for (Deck deck : decks) {
+                if (deck.getSize() < CARDS_PER_DECK && cardIndex < total) {
+                    deck.addToBottom(allCards[cardIndex++]);
                 }
             }
-        } catch (InterruptedException e) {
-            System.err.println("Error while balancing decks: " + e.getMessage());
         }
     }
 
     /**
-     * Method to start the game
+     * Method to start the game. Returns how the shutdown went once the game
+     * has ended and the deck files are written, or null if the game failed.
      */
-    public void startGame() {
-        // Start a thread for each player
-        for (Player player : players) {
-            Thread t = new Thread(player);
-            playerThreads.add(t);
-            t.start();
+    public ShutdownReport startGame() {
+        long spawnStart = System.nanoTime();
+        // Player threads and their start structures are created once and
+        // kept for later games of the same size
+        if (playerExecutor == null) {
+            playerExecutor = Executors.newFixedThreadPool(players.size(), r -> {
+                Thread t = new Thread(r, "player");
+                t.setDaemon(true);
+                return t;
+            });
+            createPlayerRunners(players.size());
+        }
+
+        // Histograms are kept only when something will read them
+        int n = players.size();
+        boolean latencies = recordLatencies || printLatencyReport || latencyReportFormat != null;
+        for (int i = 0; i < n; i++) {
+            players.get(i).setRecordLatencies(latencies);
+            decks.get(i).setRecordLatencies(latencies);
+        }
+
+        // Run each player on its own pooled thread. Tasks are submitted from
+        // all cores, so the pool starts its threads in parallel, and every
+        // player waits at the start gate until all of them and this thread
+        // have arrived, so no player takes a turn while others are spawning.
+        CountDownLatch stopped = new CountDownLatch(n);
+        playersStopped = stopped;
+        AtomicIntegerArray states = playerStates;
+        for (int i = 0; i < n; i++) {
+            states.set(i, 0);
+            startNanos[i] = 0;
+        }
+        IntStream.range(0, n).parallel().forEach(index -> playerExecutor.execute(playerRunners[index]));
+
+        try {
+            startGate.waitForAllPlayers();
+        } catch (InterruptedException e) {
+            System.err.println("Error during game execution: " + e.getMessage());
+            cleanup();
+            return null;
+        }
+        long spawnNanos = releaseNanos - spawnStart;
+
+        // Stop the game through the same latch as a win if it stops making progress
+        watchdog = null;
+        if (stallTimeoutMillis > 0) {
+            CountDownLatch endLatch = gameEndLatch;
+            boolean winnable = false;
+            for (int id = 0; id < dictionary.size() && !winnable; id++) {
+                winnable = dictionary.getCount(id) >= CARDS_PER_PLAYER;
+            }
+            watchdog = new GameWatchdog(players, stallTimeoutMillis, () -> {
+                gameOver.set(true);
+                endLatch.countDown();
+            }, winnable);
+            watchdog.start();
+        }
+
+        // Write checkpoints in the background while the game runs
+        ScheduledExecutorService checkpointer = null;
+        if (checkpointFile != null) {
+            File file = checkpointFile;
+            checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "game-checkpoint");
+                t.setDaemon(true);
+                return t;
+            });
+            checkpointer.scheduleAtFixedRate(() -> {
+                try {
+                    checkpoint(file);
+                } catch (IOException e) {
+                    System.err.println("Error writing checkpoint: " + e.getMessage());
+                }
+            }, checkpointIntervalMillis, checkpointIntervalMillis, TimeUnit.MILLISECONDS);
         }
 
         try {
             gameEndLatch.await();
-            Thread.sleep(500);
+            // Players poll only their own stop flags, so tell each of them
+            for (Player player : players) {
+                player.requestStop();
+            }
+            if (watchdog != null) {
+                watchdog.stop();
+            }
+            // Let a checkpoint in progress finish before the decks are rebalanced
+            if (checkpointer != null) {
+                checkpointer.shutdown();
+                checkpointer.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
 
-            for (Thread t : playerThreads) {
-                t.join(500);
+            // Signal every running player at once. A player waiting on an
+            // empty deck or sleeping between turns is interrupted and exits
+            // straight away; one in the middle of a turn finishes it first,
+            // because discards are not interruptible and then sees its stop
+            // flag. Only a task abandoned at the start gate is not running.
+            long stopStart = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                if (states.get(i) == 1) {
+                    playerThreads[i].interrupt();
+                }
             }
+            stopped.await(shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+            long stopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stopStart);
 
-            balanceDecks();
+            List<Integer> stragglers = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (states.get(i) != 2) {
+                    stragglers.add(i + 1);
+                }
+            }
+            if (!stragglers.isEmpty()) {
+                System.err.println("Warning: players " + stragglers + " did not stop within "
+                        + shutdownTimeoutMillis + "ms");
+            }
 
-            for (Deck deck : decks) {
-                deck.writeDeckContents();
+            long outputStart = System.nanoTime();
+            // A straggler may still move cards between its hand and decks, so
+            // the decks are then written as they are, unbalanced and unchecked
+            if (stragglers.isEmpty()) {
+                balanceDecks();
+                EndGame.validateFinalState(dictionary, decks, players);
+            } else {
+                System.err.println("Warning: decks are written without rebalancing or validation");
             }
+            writeDecksInParallel();
+            long outputMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - outputStart);
+
+            // Report how close each bounded deck came to its capacity
+            if (deckCapacity != Deck.UNBOUNDED) {
+                List<Integer> marks = getDeckHighWaterMarks();
+                for (int i = 0; i < marks.size(); i++) {
+                    System.out.println("deck " + (i + 1) + " high-water mark: " + marks.get(i)
+                            + "/" + deckCapacity);
+                }
+            }
+
+            // Every player has stopped or been given up on, so its start time is final
+            startMetrics = new StartMetrics(players, spawnNanos, releaseNanos, startNanos);
+            if (printLatencyReport || latencyReportFormat != null) {
+                LatencyReport report = getLatencyReport();
+                if (printLatencyReport) {
+                    System.out.println(startMetrics);
+                    System.out.println(report);
+                }
+                if (latencyReportFormat != null) {
+                    report.write(outputDir, latencyReportFormat);
+                }
+            }
+            return new ShutdownReport(stragglers, stopMillis, outputMillis);
 
         } catch (InterruptedException | IOException e) {
             System.err.println("Error during game execution: " + e.getMessage());
             cleanup();
+            return null;
+        }
+    }
+
+    /**
+     * Creates the task, start time and state slot of each player, and the
+     * start gate. The gate's barrier resets itself each time it opens, so
+     * all of them serve every game until the player threads are stopped.
+     */
+    private void createPlayerRunners(int n) {
+        playerRunners = new Runnable[n];
+        playerThreads = new Thread[n];
+        startNanos = new long[n];
+        playerStates = new AtomicIntegerArray(n);
+        startGate = new GameConditions(n + 1, () -> releaseNanos = System.nanoTime());
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            playerRunners[i] = () -> {
+                // Count down the latch of the game this task was started for
+                CountDownLatch stopped = playersStopped;
+                playerThreads[index] = Thread.currentThread();
+                playerStates.set(index, 1);
+                try {
+                    startGate.waitForAllPlayers();
+                    startNanos[index] = System.nanoTime();
+                    players.get(index).run();
+                } catch (InterruptedException e) {
+                    // The game was abandoned before it started
+                    Thread.currentThread().interrupt();
+                } finally {
+                    playerStates.set(index, 2);
+                    stopped.countDown();
+                }
+            };
+        }
+    }
+
+    /* Writes every deck's output file, one deck per task */
+    private void writeDecksInParallel() throws IOException {
+        try {
+            decks.parallelStream().forEach(deck -> {
+                try {
+                    deck.writeDeckContents(outputDir);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
     /* Clean up game resources and reset states */
     private void cleanup() {
         // Interrupt and cleanup all running threads
-        for (Thread t : playerThreads) {
-            if (t != null && t.isAlive()) {
-                t.interrupt();
+        for (int i = 0; playerStates != null && i < playerStates.length(); i++) {
+            if (playerStates.get(i) == 1) {
+                playerThreads[i].interrupt();
             }
         }
+        for (Player player : players) {
+            player.requestStop();
+        }
+        close();
 
         // Clear all game state
-        playerThreads.clear();
         players.clear();
         decks.clear();
         pack.clear();
         gameOver.set(true);
     }
 
+    /**
+     * Stops the pooled player threads and closes the players' output files
+     * once the game will not be played again
+     */
+    public void close() {
+        if (playerExecutor != null) {
+            playerExecutor.shutdownNow();
+            playerExecutor = null;
+        }
+        for (Player player : players) {
+            try {
+                player.closeLog();
+            } catch (IOException e) {
+                System.err.println("Error closing player " + player.getPlayerId() + " log: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads a pack file with one non-negative card value per line. Blank lines
+     * are skipped; an invalid line is reported with its line number.
+     */
+    static List<Integer> loadPack(File packFile) throws IOException {
+        List<Integer> pack = new ArrayList<>();
+        int lineNumber = 0;
+
+        try (Scanner fileScanner = new Scanner(packFile)) {
+            while (fileScanner.hasNextLine()) {
+                lineNumber++;
+                String line = fileScanner.nextLine().trim();
+                if (line.isEmpty())
+                    continue;
+
+                int cardValue;
+                try {
+                    cardValue = Integer.parseInt(line);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number at line " + lineNumber);
+                }
+                if (cardValue < 0) {
+                    throw new IllegalArgumentException("Negative number found at line " + lineNumber);
+                }
+                pack.add(cardValue);
+            }
+        }
+        return pack;
+    }
+
     public static void main(String[] args) {
+        // Run as a long-lived game server when asked to
+        if (args.length > 0 && args[0].equals("--server")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Play games from the command line without prompts when asked to
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Spread the ring over several local processes when asked to
+        if (args.length > 0 && args[0].equals("--distributed")) {
+            String[] nodeArgs = Arrays.copyOf(args, args.length);
+            nodeArgs[0] = "--local";
+            RingNode.main(nodeArgs);
+            return;
+        }
+
+        // Packs are only cached when a cache directory is given
+        PackCache packCache = null;
+        if (args.length > 1 && args[0].equals("--pack-cache")) {
+            packCache = new PackCache(new File(args[1]));
+        }
+
         CardGame game = null;
         try (Scanner scanner = new Scanner(System.in)) {
             // Step 1: Validate number of players
@@ -203,52 +934,48 @@ public class CardGame {
                         continue;
                     }
 
-                    pack = new ArrayList<>();
-                    boolean invalidPack = false;
-                    int lineNumber = 0;
-
-                    try (Scanner fileScanner = new Scanner(packFile)) {
-                        while (fileScanner.hasNextLine()) {
-                            lineNumber++;
-                            String line = fileScanner.nextLine().trim();
-                            if (line.isEmpty())
-                                continue;
-
-                            try {
-                                int cardValue = Integer.parseInt(line);
-                                if (cardValue < 0) {
-                                    System.err.println("Error: Negative number found at line " + lineNumber);
-                                    invalidPack = true;
-                                    break;
-                                }
-                                pack.add(cardValue);
-                            } catch (NumberFormatException e) {
-                                System.err.println("Error: Invalid number at line " + lineNumber);
-                                invalidPack = true;
-                                break;
-                            }
+                    // With a cache, packs played before are neither parsed nor analyzed again
+                    PackAnalysis cachedAnalysis = null;
+                    try {
+                        if (packCache != null) {
+                            CachedPack cached = packCache.load(packFile, n);
+                            pack = cached.getCards();
+                            cachedAnalysis = cached.getAnalysis();
+                        } else {
+                            pack = loadPack(packFile);
                         }
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Error: " + e.getMessage());
+                        pack = null;
+                        continue;
+                    }
 
-                        if (invalidPack) {
-                            pack = null;
-                            continue;
-                        }
+                    // Validate pack size after successful read
+                    int expectedCards = n * 8;
+                    if (pack.size() != expectedCards) {
+                        System.err.println(String.format(
+                                "Error: Pack must contain exactly %d cards for %d players (found %d cards).",
+                                expectedCards, n, pack.size()));
+                        pack = null;
+                        continue;
+                    }
 
-                        // Validate pack size after successful read
-                        int expectedCards = n * 8;
-                        if (pack.size() != expectedCards) {
-                            System.err.println(String.format(
-                                    "Error: Pack must contain exactly %d cards for %d players (found %d cards).",
-                                    expectedCards, n, pack.size()));
-                            pack = null;
-                            continue;
-                        }
+                    // Reject packs that can never produce a winner before starting any threads
+                    PackAnalysis analysis = cachedAnalysis != null ? cachedAnalysis : PackAnalyzer.analyze(pack, n);
+                    if (analysis.getWinnability() == PackAnalysis.Winnability.UNWINNABLE) {
+                        System.err.println("Error: Pack can never produce a winner: no card value appears 4 times.");
+                        pack = null;
+                        continue;
+                    }
+                    if (analysis.getWinnability() == PackAnalysis.Winnability.UNKNOWN) {
+                        System.err.println("Warning: No simulated game with this pack was won; the game may never end.");
                     }
 
                     // Step 3: Start game only after all validation passes
                     try {
                         game = new CardGame();
                         game.pack = new ArrayList<>(pack);
+                        game.setPrintLatencyReport(true);
                         game.initializeGame(n);
                         game.startGame();
                         System.out.println("Game Over!");
@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * CardGamePool keeps finished games grouped by player count so that the next
+ * game of the same size can reuse their decks, players and threads instead of
+ * building new ones.
+ */
+public class CardGamePool {
+    private final Map<Integer, Deque<CardGame>> idleGames = new HashMap<>();
+    private final Consumer<CardGame> setup;
+
+    /* Constructor creates a pool of games with the default settings */
+    public CardGamePool() {
+        this(game -> {
+        });
+    }
+
+    /**
+     * Constructor creates a pool whose new games are configured by setup,
+     * such as their output directory, before they are first dealt
+     */
+    public CardGamePool(Consumer<CardGame> setup) {
+        this.setup = setup;
+    }
+
+    /**
+     * Returns a game ready to start with the given pack, reusing an idle game
+     * of the same size when one is available.
+     */
+    public CardGame acquire(int numberOfPlayers, List<Integer> pack) throws IOException {
+        CardGame game;
+        synchronized (idleGames) {
+            Deque<CardGame> games = idleGames.get(numberOfPlayers);
+            game = games == null ? null : games.pollFirst();
+        }
+
+        if (game != null) {
+            game.reset(pack);
+        } else {
+            game = new CardGame();
+            setup.accept(game);
+            game.pack = new ArrayList<>(pack);
+            game.initializeGame(numberOfPlayers);
+        }
+        return game;
+    }
+
+    /**
+     * Returns a finished game to the pool for reuse. A game that failed, or
+     * whose players have not all stopped, is rejected; close it instead.
+     */
+    public void release(CardGame game) {
+        if (game.getNumberOfPlayers() == 0) {
+            throw new IllegalArgumentException("A failed game cannot be reused");
+        }
+        if (!game.hasStopped()) {
+            throw new IllegalArgumentException("A game with running players cannot be reused");
+        }
+        synchronized (idleGames) {
+            idleGames.computeIfAbsent(game.getNumberOfPlayers(), k -> new ArrayDeque<>()).push(game);
+        }
+    }
+
+    /* Get the number of idle games held for the given player count */
+    public int getIdleCount(int numberOfPlayers) {
+        synchronized (idleGames) {
+            Deque<CardGame> games = idleGames.get(numberOfPlayers);
+            return games == null ? 0 : games.size();
+        }
+    }
+
+    /* Stops the threads of every idle game and empties the pool */
+    public void close() {
+        synchronized (idleGames) {
+            for (Deque<CardGame> games : idleGames.values()) {
+                for (CardGame game : games) {
+                    game.close();
+                }
+            }
+            idleGames.clear();
+        }
+    }
+}
@@ -1,28 +1,91 @@
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * The Deck class represents a deck of cards and
  * provides synchronized methods for managing cards
  */
-public class Deck {
+public class Deck extends DeckHotFields implements DiscardPile {
+    // Capacity value used for decks that may grow without limit
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    // Keeps the hot fields in DeckHotFields off the cache line of the fields below
+    long p9, p10, p11, p12, p13, p14, p15;
+
+    // On-heap cards, or null when the cards are kept in a DeckStore
     private final LinkedList<Integer> cards;
+    private final DeckStore store;
+    private final int storeIndex;
     private final int deckId;
     private final Object lock;
+    private final int capacity;
+    private final WaitStrategy waitStrategy;
+    // Wait time statistics, updated under the lock by the drawing player
+    private long waitCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    // Every wait time, kept only while latencies are being recorded
+    private LatencyHistogram waitLatencies;
+    // Decodes the deck's cards for output; null when cards are plain values
+    private CardDictionary dictionary;
 
     /**
      * Constructor to intialize a deck with specific ID
      */
     public Deck(int deckId) {
+        this(deckId, UNBOUNDED);
+    }
+
+    /**
+     * Constructor to intialize a deck with specific ID that holds at most
+     * capacity cards. Adding to a full deck waits until a card is drawn.
+     */
+    public Deck(int deckId, int capacity) {
+        this(deckId, capacity, WaitStrategy.SPIN_THEN_PARK);
+    }
+
+    /**
+     * Constructor to intialize a bounded deck that uses the given strategy
+     * while a player waits for a card
+     */
+    public Deck(int deckId, int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Deck capacity must be positive");
+        }
         this.deckId = deckId;
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
         this.cards = new LinkedList<>(); // use LinkedList for efficient card addition/ removal
+        this.store = null;
+        this.storeIndex = -1;
         this.lock = new Object(); // Lock for synchronizing card operations.
     }
 
+    /**
+     * Constructor to intialize a deck whose cards are kept off the heap in
+     * the given store. Its capacity is the store's slots per deck.
+     *
+     * @param store      Store that holds the cards of many decks.
+     * @param storeIndex This deck's position in the store.
+     */
+    public Deck(int deckId, WaitStrategy waitStrategy, DeckStore store, int storeIndex) {
+        if (storeIndex < 0 || storeIndex >= store.getNumberOfDecks()) {
+            throw new IllegalArgumentException("Invalid deck store index " + storeIndex);
+        }
+        this.deckId = deckId;
+        this.capacity = store.getSlotsPerDeck();
+        this.waitStrategy = waitStrategy;
+        this.cards = null;
+        this.store = store;
+        this.storeIndex = storeIndex;
+        this.lock = new Object();
+        store.clear(storeIndex);
+    }
+
     /*
      * get method to return the deckID
      */
@@ -30,11 +93,86 @@ public class Deck {
         return deckId;
     }
 
-    /** Add a card to the bottom of the deck */
+    /* get method to return the maximum number of cards the deck can hold */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Add a card to the bottom of the deck, waiting while the deck is full.
+     * If the waiting thread is interrupted the card is still added so that no
+     * card is ever lost, and the interrupt status is restored.
+     */
     public void addToBottom(int card) {
         synchronized (lock) {
-            cards.addLast(card);
-            lock.notify();
+            boolean interrupted = false;
+            // A deck in a store has nowhere to put an extra card, so it keeps waiting
+            while (cardCount() >= capacity && (!interrupted || store != null)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            addCard(card);
+            size = cardCount();
+            if (size > highWaterMark) {
+                highWaterMark = size;
+            }
+            lock.notifyAll();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Adds count cards to the bottom of the deck in one step, in array
+     * order, waiting while there is not room for all of them. Interrupts are
+     * handled as in addToBottom.
+     */
+    public void addAllToBottom(int[] newCards, int count) {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (cardCount() + count > capacity && (!interrupted || store != null)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                addCard(newCards[i]);
+            }
+            size = cardCount();
+            if (size > highWaterMark) {
+                highWaterMark = size;
+            }
+            lock.notifyAll();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /* Returns how many more cards the deck can take before it is full */
+    public int getRemainingCapacity() {
+        synchronized (lock) {
+            return capacity - cardCount();
+        }
+    }
+
+    /* Checking whether the deck has reached its capacity */
+    public boolean isFull() {
+        synchronized (lock) {
+            return cardCount() >= capacity;
+        }
+    }
+
+    /* get method to return the largest number of cards the deck has held */
+    public int getHighWaterMark() {
+        synchronized (lock) {
+            return highWaterMark;
         }
     }
 
@@ -43,11 +181,204 @@ public class Deck {
      *
      */
     public int drawFromTop() throws InterruptedException {
+        waitForCard();
+        synchronized (lock) {
+            while (cardCount() == 0) {
+                lock.wait();
+            }
+            int card = removeCard();
+            size = cardCount();
+            // Wake a player waiting for space in a full deck
+            lock.notifyAll();
+            return card;
+        }
+    }
+
+    /**
+     * Copies up to max cards from the top of the deck into out, top first,
+     * without removing them, and returns how many were copied. Only the
+     * deck's single consumer may use this: nobody else removes cards, so the
+     * copied cards stay on top until it calls removeFromTop.
+     */
+    public int peekTop(int[] out, int max) {
+        synchronized (lock) {
+            int count = Math.min(max, cardCount());
+            if (store == null) {
+                int i = 0;
+                for (int card : cards) {
+                    if (i == count) {
+                        break;
+                    }
+                    out[i++] = card;
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    out[i] = store.get(storeIndex, i);
+                }
+            }
+            return count;
+        }
+    }
+
+    /* Removes count cards from the top of the deck, which must hold at least that many */
+    public void removeFromTop(int count) {
+        synchronized (lock) {
+            if (count > cardCount()) {
+                throw new IllegalStateException("Deck " + deckId + " holds fewer than " + count + " cards");
+            }
+            for (int i = 0; i < count; i++) {
+                removeCard();
+            }
+            size = cardCount();
+            // Wake a player waiting for space in a full deck
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the deck holds at least one card, without removing it. A
+     * player that is the deck's only consumer can then draw without waiting.
+     */
+    public void waitForCard() throws InterruptedException {
+        if (size != 0) {
+            return;
+        }
+        long waitStart = System.nanoTime();
+        awaitCard();
         synchronized (lock) {
-            while (cards.isEmpty()) {
+            while (cardCount() == 0) {
                 lock.wait();
             }
-            return cards.removeFirst();
+            recordWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    /**
+     * Waits outside the lock for a card to arrive, using the deck's wait
+     * strategy. Strategies that park return early and leave the final wait to
+     * the lock in waitForCard.
+     */
+    private void awaitCard() throws InterruptedException {
+        int tries = 0;
+        while (size == 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELDING:
+                    if (tries++ < WaitStrategy.SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                    break;
+                case SPIN_THEN_PARK:
+                    if (tries < WaitStrategy.SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else if (tries < WaitStrategy.SPIN_TRIES + WaitStrategy.YIELD_TRIES) {
+                        Thread.yield();
+                    } else {
+                        return;
+                    }
+                    tries++;
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    /* Records how long a player waited for a card; called under the lock */
+    private void recordWait(long nanos) {
+        waitCount++;
+        totalWaitNanos += nanos;
+        if (nanos > maxWaitNanos) {
+            maxWaitNanos = nanos;
+        }
+        if (waitLatencies != null) {
+            waitLatencies.record(nanos);
+        }
+    }
+
+    /* get method to return the strategy used while waiting for a card */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /* Returns how many draws had to wait for a card to arrive */
+    public long getWaitCount() {
+        synchronized (lock) {
+            return waitCount;
+        }
+    }
+
+    /* Returns the total time draws spent waiting for cards, in nanoseconds */
+    public long getTotalWaitNanos() {
+        synchronized (lock) {
+            return totalWaitNanos;
+        }
+    }
+
+    /* Returns the longest single wait for a card, in nanoseconds */
+    public long getMaxWaitNanos() {
+        synchronized (lock) {
+            return maxWaitNanos;
+        }
+    }
+
+    /**
+     * Set whether the deck keeps a histogram of waits for a card. It is only
+     * created once recording is turned on.
+     */
+    public void setRecordLatencies(boolean record) {
+        synchronized (lock) {
+            if (!record) {
+                waitLatencies = null;
+            } else if (waitLatencies == null) {
+                waitLatencies = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Returns the histogram of waits for a card, or null if they are not
+     * recorded. Read it only once the drawing player has stopped.
+     */
+    public LatencyHistogram getWaitLatencies() {
+        return waitLatencies;
+    }
+
+    /**
+     * Removes every card from the deck, keeping its high-water mark and wait
+     * statistics
+     */
+    public void clear() {
+        synchronized (lock) {
+            removeAllCards();
+            size = 0;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Removes every card from the deck and clears its high-water mark so the
+     * deck can be reused for a new game
+     */
+    public void reset() {
+        synchronized (lock) {
+            removeAllCards();
+            size = 0;
+            highWaterMark = 0;
+            waitCount = 0;
+            totalWaitNanos = 0;
+            maxWaitNanos = 0;
+            if (waitLatencies != null) {
+                waitLatencies.reset();
+            }
+            lock.notifyAll();
         }
     }
 
@@ -56,8 +387,89 @@ public class Deck {
      */
     public List<Integer> getCards() {
         synchronized (lock) {
-            return new ArrayList<>(cards);
+            int[] stored = storedCards();
+            List<Integer> values = new ArrayList<>(stored.length);
+            for (int card : stored) {
+                values.add(decode(card));
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Returns a copy of the cards as stored, which are dictionary IDs when
+     * the deck has a card dictionary
+     */
+    public int[] getCardIds() {
+        synchronized (lock) {
+            return storedCards();
+        }
+    }
+
+    /* Returns the number of cards in the deck */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Set the dictionary of the cards this deck holds. Cards added afterwards
+     * must be dictionary IDs; getCards and the output file still show values.
+     * Call it only while the deck is empty and no player is running.
+     */
+    public void setCardDictionary(CardDictionary dictionary) {
+        synchronized (lock) {
+            this.dictionary = dictionary;
+        }
+    }
+
+    /* Returns the number of stored cards; called under the lock */
+    private int cardCount() {
+        return store == null ? cards.size() : store.size(storeIndex);
+    }
+
+    /* Stores a card at the bottom; called under the lock */
+    private void addCard(int card) {
+        if (store == null) {
+            cards.addLast(card);
+        } else {
+            store.add(storeIndex, card);
+        }
+    }
+
+    /* Removes the top stored card; called under the lock */
+    private int removeCard() {
+        return store == null ? cards.removeFirst() : store.remove(storeIndex);
+    }
+
+    /* Removes every stored card; called under the lock */
+    private void removeAllCards() {
+        if (store == null) {
+            cards.clear();
+        } else {
+            store.clear(storeIndex);
+        }
+    }
+
+    /* Returns a copy of the stored cards, top first; called under the lock */
+    private int[] storedCards() {
+        int count = cardCount();
+        int[] stored = new int[count];
+        if (store == null) {
+            int i = 0;
+            for (int card : cards) {
+                stored[i++] = card;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                stored[i] = store.get(storeIndex, i);
+            }
         }
+        return stored;
+    }
+
+    /* Returns the card value of a stored card; called under the lock */
+    private int decode(int card) {
+        return dictionary == null ? card : dictionary.decode(card);
     }
 
     /**
@@ -65,18 +477,24 @@ public class Deck {
      * EAch file contains the deckID and its current cards
      */
     public void writeDeckContents() throws IOException {
+        writeDeckContents(new File("."));
+    }
+
+    /**
+     * Write the contents of the deck to "deck<ID>_output.txt" inside the given
+     * directory
+     */
+    public void writeDeckContents(File outputDir) throws IOException {
         // Use a FileWriter with the file named based on teh deck ID
-        try (FileWriter writer = new FileWriter("deck" + deckId + "_output.txt")) {
+        try (FileWriter writer = new FileWriter(new File(outputDir, "deck" + deckId + "_output.txt"))) {
             synchronized (lock) {
                 StringBuilder sb = new StringBuilder();
 
                 // Write the deck ID and its contents to the string builder
                 sb.append("deck").append(deckId).append(" contents:");
 
-                if (!cards.isEmpty()) {
-                    sb.append(" ").append(cards.stream()
-                            .map(String::valueOf)
-                            .collect(Collectors.joining(" ")));
+                for (int card : storedCards()) {
+                    sb.append(' ').append(decode(card));
                 }
                 // Write the string builder's contents to the file.
                 writer.write(sb.toString());
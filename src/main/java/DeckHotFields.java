@@ -0,0 +1,10 @@
+/**
+ * DeckHotFields holds the Deck fields written on every draw or discard,
+ * kept off the cache lines of neighbouring objects by the padding before
+ * them and by the padding Deck declares first after them.
+ */
+abstract class DeckHotFields extends CacheLinePadding {
+    // Card count readable without the lock, so an empty deck can be polled
+    volatile int size;
+    int highWaterMark;
+}
@@ -0,0 +1,103 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * DeckStore keeps the cards of many decks in one direct ByteBuffer outside
+ * the Java heap, so a very large ring does not need a list and boxed cards
+ * per deck. Each deck has a fixed region holding its head offset, its card
+ * count and a ring of slots for its cards.
+ *
+ * The store does no locking. Each deck's region must only be used under that
+ * deck's lock, which Deck does; different decks never share bytes.
+ */
+public class DeckStore {
+    // Ints before the slots in each deck's region: head offset and card count
+    private static final int HEADER_INTS = 2;
+    private static final int HEAD = 0;
+    private static final int SIZE = 1;
+
+    private final ByteBuffer buffer;
+    private final int numberOfDecks;
+    private final int slotsPerDeck;
+    private final int regionInts;
+
+    /**
+     * Constructor allocates the off-heap region for all decks at once
+     *
+     * @param numberOfDecks Number of decks in the store.
+     * @param slotsPerDeck  Most cards one deck can hold.
+     */
+    public DeckStore(int numberOfDecks, int slotsPerDeck) {
+        if (numberOfDecks <= 0 || slotsPerDeck <= 0) {
+            throw new IllegalArgumentException("Number of decks and slots per deck must be positive");
+        }
+        long bytes = (long) numberOfDecks * (HEADER_INTS + slotsPerDeck) * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Deck store would need " + bytes + " bytes, more than one buffer holds");
+        }
+        this.numberOfDecks = numberOfDecks;
+        this.slotsPerDeck = slotsPerDeck;
+        this.regionInts = HEADER_INTS + slotsPerDeck;
+        // A new direct buffer is zeroed, so every deck starts empty
+        this.buffer = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /* get method to return the number of decks in the store */
+    public int getNumberOfDecks() {
+        return numberOfDecks;
+    }
+
+    /* get method to return the most cards one deck can hold */
+    public int getSlotsPerDeck() {
+        return slotsPerDeck;
+    }
+
+    /* Returns the number of cards in a deck */
+    public int size(int deck) {
+        return read(deck, SIZE);
+    }
+
+    /* Adds a card after the last card of a deck, which must not be full */
+    public void add(int deck, int card) {
+        int size = read(deck, SIZE);
+        if (size == slotsPerDeck) {
+            throw new IllegalStateException("Deck " + deck + " is full");
+        }
+        write(deck, HEADER_INTS + (read(deck, HEAD) + size) % slotsPerDeck, card);
+        write(deck, SIZE, size + 1);
+    }
+
+    /* Removes and returns the first card of a deck, which must not be empty */
+    public int remove(int deck) {
+        int size = read(deck, SIZE);
+        if (size == 0) {
+            throw new IllegalStateException("Deck " + deck + " is empty");
+        }
+        int head = read(deck, HEAD);
+        int card = read(deck, HEADER_INTS + head);
+        write(deck, HEAD, (head + 1) % slotsPerDeck);
+        write(deck, SIZE, size - 1);
+        return card;
+    }
+
+    /* Returns the card at a position in a deck, 0 being the first */
+    public int get(int deck, int position) {
+        return read(deck, HEADER_INTS + (read(deck, HEAD) + position) % slotsPerDeck);
+    }
+
+    /* Removes every card from a deck */
+    public void clear(int deck) {
+        write(deck, HEAD, 0);
+        write(deck, SIZE, 0);
+    }
+
+    /* Reads an int of a deck's region */
+    private int read(int deck, int offset) {
+        return buffer.getInt(((deck * regionInts) + offset) * Integer.BYTES);
+    }
+
+    /* Writes an int of a deck's region */
+    private void write(int deck, int offset, int value) {
+        buffer.putInt(((deck * regionInts) + offset) * Integer.BYTES, value);
+    }
+}
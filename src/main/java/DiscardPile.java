@@ -0,0 +1,23 @@
+/**
+ * DiscardPile is the side of a deck that a player discards into. A player
+ * only ever draws from its left deck, so its right deck needs nothing more,
+ * and a deck owned by another process can stand in for it without offering
+ * a way to draw.
+ */
+public interface DiscardPile {
+
+    /* get method to return the ID of the deck the cards go to */
+    int getDeckId();
+
+    /* Add a card to the bottom of the deck, waiting while the deck is full */
+    void addToBottom(int card);
+
+    /* Adds count cards to the bottom of the deck in one step, in array order */
+    void addAllToBottom(int[] cards, int count);
+
+    /* Returns how many more cards the deck can take before it is full */
+    int getRemainingCapacity();
+
+    /* Checking whether the deck has reached its capacity */
+    boolean isFull();
+}
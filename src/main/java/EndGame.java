@@ -101,4 +101,34 @@ public class EndGame {
             System.err.println("Final state cards: " + allCards.size());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Validating that the decks and hands hold exactly the cards of the pack
+     * the dictionary was built from, comparing flat per-ID counts. Prints a
+     * warning for each card value whose count changed and returns true if
+     * every card is accounted for.
+     */
+    public static boolean validateFinalState(CardDictionary dictionary, List<Deck> decks, List<Player> players) {
+        int[] counts = new int[dictionary.size()];
+        for (Deck deck : decks) {
+            for (int card : deck.getCardIds()) {
+                counts[card]++;
+            }
+        }
+        for (Player player : players) {
+            for (int card : player.getHandIds()) {
+                counts[card]++;
+            }
+        }
+
+        boolean valid = true;
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] != dictionary.getCount(id)) {
+                System.err.println("Warning: Pack has " + dictionary.getCount(id) + " cards of value "
+                        + dictionary.decode(id) + " but the final state has " + counts[id]);
+                valid = false;
+            }
+        }
+        return valid;
+    }
+}
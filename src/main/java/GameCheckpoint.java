@@ -0,0 +1,196 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * GameCheckpoint is a consistent copy of a running game: every deck's cards,
+ * every hand and every player's turn count, as card values.
+ *
+ * A checkpoint is captured by taking every player's hand lock in player
+ * order. Cards only move during a turn, under the moving player's hand lock,
+ * so once all of them are held no card is in flight. The copy is made in
+ * memory and the locks released before anything is written, so the game only
+ * pauses for the copy.
+ *
+ * File format (big-endian ints): "CKPT", version, number of players; for
+ * each deck its card count and cards; for each player its turn count and
+ * four cards.
+ */
+public class GameCheckpoint {
+    private static final int MAGIC = 0x434B5054; // "CKPT"
+    private static final int VERSION = 1;
+    private static final int HAND_SIZE = 4;
+
+    private final int[][] decks;
+    private final int[][] hands;
+    private final int[] turnCounts;
+    private final long pauseNanos;
+
+    /**
+     * Constructor records a game state
+     *
+     * @param decks      Cards of each deck, top first.
+     * @param hands      Cards of each player's hand.
+     * @param turnCounts Turns completed by each player.
+     * @param pauseNanos How long the game was paused to capture it, 0 if read from a file.
+     */
+    public GameCheckpoint(int[][] decks, int[][] hands, int[] turnCounts, long pauseNanos) {
+        if (decks.length != hands.length || hands.length != turnCounts.length) {
+            throw new IllegalArgumentException("Checkpoint needs one deck, hand and turn count per player");
+        }
+        this.decks = decks;
+        this.hands = hands;
+        this.turnCounts = turnCounts;
+        this.pauseNanos = pauseNanos;
+    }
+
+    /**
+     * Captures the state of a running game. Deck i must be player i's left
+     * deck, and the dictionary is the one the players and decks use, or null
+     * if they hold plain card values.
+     */
+    public static GameCheckpoint capture(List<Player> players, List<Deck> decks, CardDictionary dictionary) {
+        int n = players.size();
+        int[][] deckCards = new int[n][];
+        int[][] handCards = new int[n][];
+        int[] turnCounts = new int[n];
+
+        long start = System.nanoTime();
+        int locked = 0;
+        try {
+            for (Player player : players) {
+                player.lockHand();
+                locked++;
+            }
+            for (int i = 0; i < n; i++) {
+                deckCards[i] = decks.get(i).getCardIds();
+                handCards[i] = players.get(i).getHandIds();
+                turnCounts[i] = players.get(i).getTurnCount();
+            }
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                players.get(i).unlockHand();
+            }
+        }
+        long pauseNanos = System.nanoTime() - start;
+
+        // Decode outside the pause
+        if (dictionary != null) {
+            for (int i = 0; i < n; i++) {
+                decode(deckCards[i], dictionary);
+                decode(handCards[i], dictionary);
+            }
+        }
+        return new GameCheckpoint(deckCards, handCards, turnCounts, pauseNanos);
+    }
+
+    /* Replaces dictionary IDs with their card values */
+    private static void decode(int[] cards, CardDictionary dictionary) {
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = dictionary.decode(cards[i]);
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file next to the target and then
+     * renames it, so a crash while writing leaves the previous checkpoint
+     */
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(decks.length);
+            for (int[] deck : decks) {
+                out.writeInt(deck.length);
+                for (int card : deck) {
+                    out.writeInt(card);
+                }
+            }
+            for (int i = 0; i < hands.length; i++) {
+                out.writeInt(turnCounts[i]);
+                for (int card : hands[i]) {
+                    out.writeInt(card);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* Reads a checkpoint written by write */
+    public static GameCheckpoint read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a checkpoint");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version);
+            }
+            int n = in.readInt();
+            if (n <= 0) {
+                throw new IOException("Invalid number of players in checkpoint: " + n);
+            }
+            int[][] decks = new int[n][];
+            for (int i = 0; i < n; i++) {
+                int size = in.readInt();
+                if (size < 0 || size > n * 8) {
+                    throw new IOException("Invalid deck size in checkpoint: " + size);
+                }
+                decks[i] = new int[size];
+                for (int j = 0; j < size; j++) {
+                    decks[i][j] = in.readInt();
+                }
+            }
+            int[][] hands = new int[n][HAND_SIZE];
+            int[] turnCounts = new int[n];
+            for (int i = 0; i < n; i++) {
+                turnCounts[i] = in.readInt();
+                for (int j = 0; j < HAND_SIZE; j++) {
+                    hands[i][j] = in.readInt();
+                }
+            }
+            return new GameCheckpoint(decks, hands, turnCounts, 0);
+        }
+    }
+
+    /* get method to return the number of players */
+    public int getNumberOfPlayers() {
+        return hands.length;
+    }
+
+    /* Returns the cards of the deck at a 0-based index, top first */
+    public int[] getDeck(int index) {
+        return decks[index].clone();
+    }
+
+    /* Returns the cards of the hand of the player at a 0-based index */
+    public int[] getHand(int index) {
+        return hands[index].clone();
+    }
+
+    /* Returns the turns completed by the player at a 0-based index */
+    public int getTurnCount(int index) {
+        return turnCounts[index];
+    }
+
+    /* get method to return how long the game was paused for the capture */
+    public long getPauseNanos() {
+        return pauseNanos;
+    }
+}
@@ -0,0 +1,58 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameClient submits games to a GameServer running on the same machine and
+ * returns the server's reply.
+ */
+public class GameClient {
+
+    /**
+     * Sends one request to the server on localhost and returns the reply
+     * lines, without the closing "END" line.
+     */
+    public static List<String> submit(int port, String request) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println(request);
+
+            List<String> reply = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null && !line.equals("END")) {
+                reply.add(line);
+            }
+            out.println("QUIT");
+            return reply;
+        }
+    }
+
+    /**
+     * Usage: GameClient <port> <players> <pack path>
+     * Prints the server's reply for a single game.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: GameClient <port> <players> <pack path>");
+            return;
+        }
+        try {
+            int port = Integer.parseInt(args[0]);
+            for (String line : submit(port, "PLAY " + args[1] + " FILE " + args[2])) {
+                System.out.println(line);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: Port must be an integer.");
+        } catch (IOException e) {
+            System.err.println("Error contacting game server: " + e.getMessage());
+        }
+    }
+}
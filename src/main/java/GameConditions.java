@@ -17,8 +17,17 @@ public class GameConditions {
      * Constructor starts synchronization primitives and game state.
      */
     public GameConditions(int numberOfPlayers) {
+        this(numberOfPlayers, null);
+    }
+
+    /**
+     * Constructor starts synchronization primitives and game state, running
+     * onStart once every player has reached the starting point and before
+     * any of them is released
+     */
+    public GameConditions(int numberOfPlayers, Runnable onStart) {
         this.numberOfPlayers = numberOfPlayers;
-        this.barrier = new CyclicBarrier(numberOfPlayers);
+        this.barrier = new CyclicBarrier(numberOfPlayers, onStart);
         this.gameEndLatch = new CountDownLatch(1);
         this.winner = -1;
         this.gameOver = false;
@@ -40,7 +49,7 @@ public class GameConditions {
     /**
      * Allowing a player to declare themselves as the winner, ending the game
      */
-    public boolean declareWinner(int playerId) {
+    public synchronized boolean declareWinner(int playerId) {
         if (!gameOver && winner == -1) {
             winner = playerId;
             gameOver = true;
@@ -0,0 +1,80 @@
+/**
+ * GameEvent is one move made by a player, as published to the subscribers of
+ * a GameEventPublisher. Card values are the pack's original values.
+ */
+public class GameEvent {
+
+    /* The kinds of move that are published */
+    public enum Type {
+        // A card drawn from the player's left deck
+        DRAW,
+        // A card discarded to the player's right deck
+        DISCARD,
+        // The player has won
+        WIN,
+        // The player has left the game
+        EXIT
+    }
+
+    private final Type type;
+    private final int playerId;
+    private final int card;
+    private final int deckId;
+    private final long timeNanos;
+
+    /**
+     * Constructor records one event
+     *
+     * @param type     Kind of move.
+     * @param playerId ID of the player that moved.
+     * @param card     Card drawn or discarded, -1 for WIN and EXIT.
+     * @param deckId   Deck drawn from or discarded to, -1 for WIN and EXIT.
+     */
+    public GameEvent(Type type, int playerId, int card, int deckId) {
+        this.type = type;
+        this.playerId = playerId;
+        this.card = card;
+        this.deckId = deckId;
+        this.timeNanos = System.nanoTime();
+    }
+
+    /* get method to return the kind of move */
+    public Type getType() {
+        return type;
+    }
+
+    /* get method to return the ID of the player that moved */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /* get method to return the card drawn or discarded, or -1 */
+    public int getCard() {
+        return card;
+    }
+
+    /* get method to return the deck drawn from or discarded to, or -1 */
+    public int getDeckId() {
+        return deckId;
+    }
+
+    /* get method to return when the event happened, as System.nanoTime() */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /* toString() method to describe the event like a log line */
+    @Override
+    public String toString() {
+        switch (type) {
+            case DRAW:
+                return "player " + playerId + " draws a " + card + " from deck " + deckId;
+            case DISCARD:
+                return "player " + playerId + " discards a " + card + " to deck " + deckId;
+            case WIN:
+                return "player " + playerId + " wins";
+            default:
+                return "player " + playerId + " exits";
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.concurrent.Flow;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * GameEventPublisher publishes the moves of a running game to any number of
+ * Flow subscribers. Each subscriber gets its own buffer and receives events
+ * only as fast as it requests them, on the publisher's executor rather than
+ * the players' threads. What happens when a subscriber's buffer is full is
+ * set by the overflow policy; only BLOCK ever makes a player wait, and even
+ * then a stopping or interrupted player gives up and drops the event.
+ */
+public class GameEventPublisher implements Flow.Publisher<GameEvent>, AutoCloseable {
+
+    /* What a player does when a subscriber's buffer is full */
+    public enum OverflowPolicy {
+        // Drop the event for that subscriber, keeping no backlog
+        DROP,
+        // Keep up to the buffer size of undelivered events, then drop
+        BUFFER,
+        // Wait until the subscriber has room, slowing the game down to its pace
+        BLOCK
+    }
+
+    private final ExecutorService deliveryPool;
+    private final SubmissionPublisher<GameEvent> publisher;
+    private final OverflowPolicy policy;
+    // How long a blocked publish parks between checks for room or a reason to give up
+    private static final long BLOCK_POLL_NANOS = 100_000;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /* Constructor creates a publisher that drops events nobody has room for */
+    public GameEventPublisher() {
+        this(OverflowPolicy.DROP, 1);
+    }
+
+    /**
+     * Constructor creates a publisher with the given policy
+     *
+     * @param policy     What to do when a subscriber's buffer is full.
+     * @param bufferSize Events buffered per subscriber for BUFFER and BLOCK,
+     *                   rounded up to a power of two. DROP buffers one event.
+     */
+    public GameEventPublisher(OverflowPolicy policy, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.policy = policy;
+        // Subscribers are called on their own threads, so a slow one cannot hold up the others
+        this.deliveryPool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "game-events");
+            t.setDaemon(true);
+            return t;
+        });
+        this.publisher = new SubmissionPublisher<>(deliveryPool,
+                policy == OverflowPolicy.DROP ? 1 : bufferSize);
+    }
+
+    /* Adds a subscriber, which receives events published from now on */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /* Checking whether anybody is subscribed, so events can be skipped if not */
+    public boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    /* Hands an event to every subscriber according to the overflow policy */
+    public void publish(GameEvent event) {
+        publish(event, () -> false);
+    }
+
+    /**
+     * Hands an event to every subscriber according to the overflow policy.
+     * Under BLOCK the caller waits for a full subscriber to make room, but
+     * gives up and drops the event as soon as its thread is interrupted or
+     * giveUp returns true, so a slow subscriber cannot keep it from stopping.
+     */
+    public void publish(GameEvent event, BooleanSupplier giveUp) {
+        publisher.offer(event, (subscriber, lost) -> {
+            // Returning true offers the event to that subscriber once more
+            if (policy == OverflowPolicy.BLOCK && awaitRoom(giveUp)) {
+                return true;
+            }
+            dropped.incrementAndGet();
+            return false;
+        });
+    }
+
+    /* Waits until every subscriber has room, returning false if the caller gives up first */
+    private boolean awaitRoom(BooleanSupplier giveUp) {
+        while (publisher.estimateMaximumLag() >= publisher.getMaxBufferCapacity()) {
+            if (Thread.currentThread().isInterrupted() || giveUp.getAsBoolean()) {
+                return false;
+            }
+            LockSupport.parkNanos(BLOCK_POLL_NANOS);
+        }
+        return true;
+    }
+
+    /* Returns how many subscriber deliveries were dropped */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /* get method to return the overflow policy */
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /* Completes every subscriber once the events already published are delivered */
+    @Override
+    public void close() {
+        publisher.close();
+        deliveryPool.shutdown();
+    }
+}
@@ -0,0 +1,249 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GameServer keeps one JVM running and plays card games submitted over a
+ * local TCP socket, so each game runs on already loaded and warmed-up code.
+ *
+ * Each connection sends one request per line:
+ * PLAY <players> FILE <pack path>
+ * PLAY <players> CARDS <card> <card> ...
+ * QUIT
+ *
+ * Every PLAY request is answered with either "OK winner <id> turns <count>"
+ * followed by one "deck<ID> contents:" line per deck, or "ERROR <message>",
+ * and the reply always ends with a line containing "END". A game that makes
+ * no progress for the stall timeout is stopped and answered with an error.
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 5050;
+    public static final long DEFAULT_STALL_TIMEOUT_MILLIS = 60000;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionPool;
+    private final File outputRoot;
+    private final AtomicInteger jobCounter = new AtomicInteger();
+    private volatile boolean running = true;
+    private volatile long stallTimeoutMillis = DEFAULT_STALL_TIMEOUT_MILLIS;
+
+    /**
+     * Constructor binds the server to the loopback address. Port 0 picks any
+     * free port. Each game writes its output files to its own directory
+     * inside outputRoot.
+     */
+    public GameServer(int port, File outputRoot) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.connectionPool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "game-server-connection");
+            t.setDaemon(true);
+            return t;
+        });
+        this.outputRoot = outputRoot;
+    }
+
+    /* Set how long a job's game may go without progress before it is stopped */
+    public void setStallTimeout(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Stall timeout must be positive");
+        }
+        this.stallTimeoutMillis = millis;
+    }
+
+    /* get method to return the port the server is listening on */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed. Each connection is
+     * served on its own thread so games from different clients run
+     * concurrently.
+     */
+    public void serve() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionPool.execute(() -> handleConnection(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /* Starts serving on a background thread */
+    public void start() {
+        Thread acceptor = new Thread(this::serve, "game-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /* Stops accepting connections and releases the socket */
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        connectionPool.shutdownNow();
+    }
+
+    /* Reads requests from one client until it quits or disconnects */
+    private void handleConnection(Socket socket) {
+        try (Socket s = socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(s.getOutputStream(), false, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                for (String reply : runJob(line)) {
+                    out.println(reply);
+                }
+                out.println("END");
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Error serving client: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses and plays a single PLAY request, returning the reply lines
+     * (without the closing "END").
+     */
+    List<String> runJob(String request) {
+        List<String> reply = new ArrayList<>();
+        String[] parts = request.split("\\s+");
+        try {
+            if (parts.length < 3 || !parts[0].equalsIgnoreCase("PLAY")) {
+                throw new IllegalArgumentException("Expected PLAY <players> FILE <path> or PLAY <players> CARDS ...");
+            }
+            int n;
+            try {
+                n = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number of players: " + parts[1]);
+            }
+
+            List<Integer> pack;
+            if (parts[2].equalsIgnoreCase("FILE") && parts.length == 4) {
+                File packFile = new File(parts[3]);
+                if (!packFile.exists()) {
+                    throw new IllegalArgumentException("File not found: " + parts[3]);
+                }
+                pack = CardGame.loadPack(packFile);
+            } else if (parts[2].equalsIgnoreCase("CARDS")) {
+                pack = new ArrayList<>();
+                for (int i = 3; i < parts.length; i++) {
+                    int card;
+                    try {
+                        card = Integer.parseInt(parts[i]);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid card value: " + parts[i]);
+                    }
+                    if (card < 0) {
+                        throw new IllegalArgumentException("Negative card value: " + card);
+                    }
+                    pack.add(card);
+                }
+            } else {
+                throw new IllegalArgumentException("Expected FILE <path> or CARDS <card> ...");
+            }
+
+            if (pack.size() != n * 8) {
+                throw new IllegalArgumentException(
+                        String.format("Pack must contain exactly %d cards", n * 8));
+            }
+            // Reject packs that can never produce a winner before starting any threads
+            PackAnalysis analysis = PackAnalyzer.analyze(pack, n, PackAnalyzer.QUICK_TURN_BUDGET);
+            if (analysis.getWinnability() == PackAnalysis.Winnability.UNWINNABLE) {
+                throw new IllegalArgumentException("Pack can never produce a winner");
+            }
+
+            // Give each game its own directory so concurrent games do not
+            // overwrite each other's output files
+            File gameDir = new File(outputRoot, "game" + jobCounter.incrementAndGet());
+            if (!gameDir.isDirectory() && !gameDir.mkdirs()) {
+                throw new IOException("Could not create " + gameDir);
+            }
+
+            // Each game owns a pool of player threads, so it is always closed
+            CardGame game = new CardGame();
+            try {
+                game.setOutputDirectory(gameDir);
+                // A job that never ends would hold its connection forever
+                game.setStallTimeout(stallTimeoutMillis);
+                game.pack = pack;
+                game.initializeGame(n);
+                if (game.startGame() == null) {
+                    throw new IOException("Game failed");
+                }
+                if (game.getWatchdogReport() != null) {
+                    throw new IOException("Game stopped after " + stallTimeoutMillis
+                            + "ms without progress; it may never end");
+                }
+
+                reply.add("OK winner " + game.getWinner() + " turns " + game.getTotalTurns());
+                List<List<Integer>> decks = game.getDeckContents();
+                for (int i = 0; i < decks.size(); i++) {
+                    StringBuilder sb = new StringBuilder();
+                    sb.append("deck").append(i + 1).append(" contents:");
+                    for (int card : decks.get(i)) {
+                        sb.append(' ').append(card);
+                    }
+                    reply.add(sb.toString());
+                }
+            } finally {
+                game.close();
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            reply.clear();
+            reply.add("ERROR " + e.getMessage());
+        }
+        return reply;
+    }
+
+    /**
+     * Starts the server. Optional arguments are the port and the directory
+     * that receives each game's output files.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        if (args.length > 0) {
+            try {
+                port = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                port = -1;
+            }
+        }
+        if (port < 0 || port > 65535 || args.length > 2) {
+            System.err.println("Usage: CardGame --server [port] [output dir]");
+            System.exit(2);
+        }
+        File outputRoot = new File(args.length > 1 ? args[1] : "games");
+        try {
+            GameServer server = new GameServer(port, outputRoot);
+            System.out.println("Game server listening on port " + server.getPort());
+            server.serve();
+        } catch (IOException e) {
+            System.err.println("Error starting game server: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * GameState is an immutable snapshot of a whole ring: every hand, every deck,
+ * the winner and the number of turns taken. Taking a turn returns a new state
+ * that shares everything except the changed hand and the two changed decks
+ * with the old one, so forking a position costs nothing: keep the reference
+ * and play on from it as often as needed, from any number of threads.
+ *
+ * Hands and decks are stored in 32-way tries, so a turn copies a few short
+ * paths (O(log n)) rather than the ring. Each deck is a persistent queue of
+ * cards. The rules are HeadlessGame's.
+ */
+public final class GameState {
+    private static final int HAND_SIZE = 4;
+
+    private final int numberOfPlayers;
+    // int[HAND_SIZE] per player, never modified once stored
+    private final Trie hands;
+    // CardQueue per deck
+    private final Trie decks;
+    private final int winner;
+    private final long turns;
+
+    private GameState(int numberOfPlayers, Trie hands, Trie decks, int winner, long turns) {
+        this.numberOfPlayers = numberOfPlayers;
+        this.hands = hands;
+        this.decks = decks;
+        this.winner = winner;
+        this.turns = turns;
+    }
+
+    /**
+     * Constructor copies hands and decks given as arrays, decks top card
+     * first. Only the first four cards of each hand are used.
+     */
+    GameState(int[][] handArrays, int[][] deckArrays, int winner, long turns) {
+        int n = handArrays.length;
+        Object[] handItems = new Object[n];
+        Object[] deckItems = new Object[n];
+        for (int i = 0; i < n; i++) {
+            handItems[i] = Arrays.copyOf(handArrays[i], HAND_SIZE);
+            CardQueue deck = CardQueue.EMPTY;
+            for (int card : deckArrays[i]) {
+                deck = deck.add(card);
+            }
+            deckItems[i] = deck;
+        }
+        this.numberOfPlayers = n;
+        this.hands = Trie.of(handItems);
+        this.decks = Trie.of(deckItems);
+        this.winner = winner;
+        this.turns = turns;
+    }
+
+    /**
+     * Deals the pack exactly as CardGame does and returns the starting
+     * position. A player dealt a winning hand has already won.
+     */
+    public static GameState deal(List<Integer> pack, int numberOfPlayers) {
+        return new HeadlessGame(pack, numberOfPlayers).snapshot();
+    }
+
+    /**
+     * Returns the state after the player at the given 0-based index takes a
+     * turn, or this state if the game is over or the player's left deck is
+     * empty
+     */
+    public GameState step(int playerIndex) {
+        CardQueue left = (CardQueue) decks.get(playerIndex);
+        if (winner != -1 || left.size == 0) {
+            return this;
+        }
+        int[] drawn = new int[HAND_SIZE + 1];
+        System.arraycopy((int[]) hands.get(playerIndex), 0, drawn, 0, HAND_SIZE);
+        drawn[HAND_SIZE] = left.peek();
+        boolean won = HeadlessGame.isWinningHand(drawn, HAND_SIZE + 1);
+
+        // Discard, keeping the remaining cards in their original order
+        int discardIndex = HeadlessGame.selectDiscardIndex(drawn, HAND_SIZE + 1, playerIndex + 1);
+        int[] hand = new int[HAND_SIZE];
+        System.arraycopy(drawn, 0, hand, 0, discardIndex);
+        System.arraycopy(drawn, discardIndex + 1, hand, discardIndex, HAND_SIZE - discardIndex);
+
+        int rightIndex = (playerIndex + 1) % numberOfPlayers;
+        Trie newDecks = decks.set(playerIndex, left.removeFirst());
+        CardQueue right = (CardQueue) newDecks.get(rightIndex);
+        newDecks = newDecks.set(rightIndex, right.add(drawn[discardIndex]));
+
+        return new GameState(numberOfPlayers, hands.set(playerIndex, hand), newDecks,
+                won ? playerIndex + 1 : -1, turns + 1);
+    }
+
+    /**
+     * Plays with players chosen at random until someone wins or maxTurns
+     * turns have been taken in total, and returns the final state
+     */
+    public GameState play(SplittableRandom random, long maxTurns) {
+        GameState state = this;
+        while (state.winner == -1 && state.turns < maxTurns) {
+            state = state.step(random.nextInt(numberOfPlayers));
+        }
+        return state;
+    }
+
+    /**
+     * Plays the given number of random continuations from this position in
+     * parallel, branch b using seed + b. Returns each branch's final state.
+     */
+    public GameState[] playBranches(int branches, long maxTurns, long seed) {
+        return IntStream.range(0, branches).parallel()
+                .mapToObj(branch -> play(new SplittableRandom(seed + branch), maxTurns))
+                .toArray(GameState[]::new);
+    }
+
+    /* get method to return the number of players */
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    /* Returns the ID of the winning player, or -1 if nobody has won */
+    public int getWinner() {
+        return winner;
+    }
+
+    /* Returns the number of turns taken to reach this state */
+    public long getTurns() {
+        return turns;
+    }
+
+    /* Returns a copy of the hand of the player at the given 0-based index */
+    public int[] getHand(int playerIndex) {
+        return ((int[]) hands.get(playerIndex)).clone();
+    }
+
+    /* Returns a copy of the deck at the given 0-based index, top card first */
+    public int[] getDeck(int deckIndex) {
+        return ((CardQueue) decks.get(deckIndex)).toArray();
+    }
+
+    /*
+     * Fixed-size persistent array. Leaves and inner nodes hold 32 slots;
+     * setting a slot copies the nodes on the path to it and shares the rest.
+     */
+    private static final class Trie {
+        private static final int BITS = 5;
+        private static final int WIDTH = 1 << BITS;
+        private static final int MASK = WIDTH - 1;
+
+        private final Object[] root;
+        private final int shift;
+
+        private Trie(Object[] root, int shift) {
+            this.root = root;
+            this.shift = shift;
+        }
+
+        /* Builds a trie holding the given items */
+        static Trie of(Object[] items) {
+            int shift = 0;
+            while ((long) WIDTH << shift < items.length) {
+                shift += BITS;
+            }
+            return new Trie(build(items, shift, 0), shift);
+        }
+
+        /* Builds the node covering items from offset at the given level */
+        private static Object[] build(Object[] items, int shift, int offset) {
+            Object[] node = new Object[WIDTH];
+            for (int k = 0; k < WIDTH; k++) {
+                int start = offset + (k << shift);
+                if (start >= items.length) {
+                    break;
+                }
+                node[k] = shift == 0 ? items[start] : build(items, shift - BITS, start);
+            }
+            return node;
+        }
+
+        /* Returns the item at an index */
+        Object get(int index) {
+            Object[] node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                node = (Object[]) node[(index >>> level) & MASK];
+            }
+            return node[index & MASK];
+        }
+
+        /* Returns a trie with the item at an index replaced */
+        Trie set(int index, Object value) {
+            return new Trie(set(root, shift, index, value), shift);
+        }
+
+        /* Copies the path to an index, replacing the item at its end */
+        private static Object[] set(Object[] node, int level, int index, Object value) {
+            Object[] copy = node.clone();
+            if (level == 0) {
+                copy[index & MASK] = value;
+            } else {
+                int k = (index >>> level) & MASK;
+                copy[k] = set((Object[]) node[k], level - BITS, index, value);
+            }
+            return copy;
+        }
+    }
+
+    /* Immutable linked list of cards */
+    private static final class Cards {
+        final int card;
+        final Cards next;
+
+        Cards(int card, Cards next) {
+            this.card = card;
+            this.next = next;
+        }
+    }
+
+    /*
+     * Persistent FIFO queue: cards are drawn from the front list and added to
+     * the rear list, which is reversed into a new front list when the front
+     * runs out. The front is only empty when the whole queue is.
+     */
+    private static final class CardQueue {
+        static final CardQueue EMPTY = new CardQueue(null, null, 0);
+
+        final Cards front;
+        final Cards rear;
+        final int size;
+
+        CardQueue(Cards front, Cards rear, int size) {
+            this.front = front;
+            this.rear = rear;
+            this.size = size;
+        }
+
+        int peek() {
+            return front.card;
+        }
+
+        CardQueue add(int card) {
+            if (front == null) {
+                return new CardQueue(new Cards(card, null), null, 1);
+            }
+            return new CardQueue(front, new Cards(card, rear), size + 1);
+        }
+
+        CardQueue removeFirst() {
+            if (front.next != null) {
+                return new CardQueue(front.next, rear, size - 1);
+            }
+            Cards reversed = null;
+            for (Cards c = rear; c != null; c = c.next) {
+                reversed = new Cards(c.card, reversed);
+            }
+            return new CardQueue(reversed, null, size - 1);
+        }
+
+        int[] toArray() {
+            int[] cards = new int[size];
+            int i = 0;
+            for (Cards c = front; c != null; c = c.next) {
+                cards[i++] = c.card;
+            }
+            // The rear list holds the bottom cards, last added first
+            int k = size - 1;
+            for (Cards c = rear; c != null; c = c.next) {
+                cards[k--] = c.card;
+            }
+            return cards;
+        }
+    }
+}
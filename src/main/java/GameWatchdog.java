@@ -0,0 +1,157 @@
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameWatchdog stops games that can no longer finish. It samples the players
+ * at regular intervals and scores the card-value distribution across hands as
+ * the sum, over all hands, of the most cards of one value in that hand. Only
+ * turns that lift the score or the closest hand to a new high count as
+ * progress, so a livelocked ring whose score just rises and falls is not
+ * mistaken for one that is getting anywhere. When there has been no progress
+ * for the stall window, because nobody can take a turn, no new high is
+ * reached, or the pack holds no four of a kind at all, it calls the stop
+ * action and keeps a diagnostic report.
+ */
+public class GameWatchdog {
+    private final List<Player> players;
+    private final long stallWindowMillis;
+    private final Runnable stopAction;
+    private final boolean winnable;
+    private ScheduledExecutorService scheduler;
+    private long lastTurns = -1;
+    // Highest score and closest hand sampled so far; both only ever rise
+    private int bestScore = -1;
+    private int bestCloseness;
+    private long lastProgressMillis;
+    private volatile String report;
+
+    /**
+     * Constructor prepares a watchdog for the given players
+     *
+     * @param players           Players whose turns and hands are sampled.
+     * @param stallWindowMillis Time without progress before the game is stopped.
+     * @param stopAction        Ends the game, as a win would.
+     */
+    public GameWatchdog(List<Player> players, long stallWindowMillis, Runnable stopAction) {
+        this(players, stallWindowMillis, stopAction, true);
+    }
+
+    /**
+     * Constructor prepares a watchdog for a game whose pack may hold no four
+     * of a kind. Such a game can never be won, so nothing counts as progress
+     * and it is stopped once the stall window has passed.
+     *
+     * @param winnable Whether some card value has at least four copies.
+     */
+    public GameWatchdog(List<Player> players, long stallWindowMillis, Runnable stopAction, boolean winnable) {
+        if (stallWindowMillis <= 0) {
+            throw new IllegalArgumentException("Stall window must be positive");
+        }
+        this.players = players;
+        this.stallWindowMillis = stallWindowMillis;
+        this.stopAction = stopAction;
+        this.winnable = winnable;
+    }
+
+    /* Starts sampling the players on a background thread */
+    public synchronized void start() {
+        lastProgressMillis = System.currentTimeMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, stallWindowMillis / 10);
+        scheduler.scheduleAtFixedRate(this::check, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /* Stops sampling */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /* Checking whether the watchdog stopped the game */
+    public boolean hasFired() {
+        return report != null;
+    }
+
+    /* Returns the diagnostic report, or null if the watchdog has not fired */
+    public String getReport() {
+        return report;
+    }
+
+    /* Samples the players once and stops the game if it has stalled */
+    synchronized void check() {
+        if (report != null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long turns = 0;
+        int score = 0;
+        int closest = 0;
+        for (Player player : players) {
+            turns += player.getTurnCount();
+            int closeness = sameValueCount(player.getHand());
+            score += closeness;
+            closest = Math.max(closest, closeness);
+        }
+
+        boolean moved = turns != lastTurns;
+        lastTurns = turns;
+        boolean newHigh = score > bestScore || closest > bestCloseness;
+        bestScore = Math.max(bestScore, score);
+        bestCloseness = Math.max(bestCloseness, closest);
+        if (winnable && moved && newHigh) {
+            lastProgressMillis = now;
+            return;
+        }
+
+        if (now - lastProgressMillis >= stallWindowMillis) {
+            report = buildReport(turns, moved, now - lastProgressMillis);
+            System.err.println(report);
+            stopAction.run();
+            stop();
+        }
+    }
+
+    /* Returns the largest number of cards of one value in a hand */
+    private static int sameValueCount(List<Integer> hand) {
+        int best = 0;
+        for (int card : hand) {
+            int same = 0;
+            for (int other : hand) {
+                if (other == card) {
+                    same++;
+                }
+            }
+            best = Math.max(best, same);
+        }
+        return best;
+    }
+
+    /* Describes why the game was stopped and the state it was stopped in */
+    private String buildReport(long turns, boolean moved, long stalledMillis) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Watchdog stopped the game after ").append(stalledMillis)
+                .append("ms without progress: ")
+                .append(!winnable ? "the pack holds no four of a kind, so nobody can win"
+                        : moved ? "turns continue but no hand gets closer to four of a kind"
+                        : "no player has taken a turn")
+                .append(System.lineSeparator());
+        sb.append("total turns: ").append(turns)
+                .append(", closest hand: ").append(bestCloseness).append(" of a kind")
+                .append(System.lineSeparator());
+        for (Player player : players) {
+            sb.append("player ").append(player.getPlayerId())
+                    .append(" turns ").append(player.getTurnCount())
+                    .append(" hand ").append(player.getHand())
+                    .append(System.lineSeparator());
+        }
+        return sb.toString().trim();
+    }
+}
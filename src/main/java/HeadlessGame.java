@@ -0,0 +1,190 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * HeadlessGame plays the card game's rules on a single thread without any
+ * output files, so many games can be simulated quickly. Hands and decks are
+ * plain int arrays and turns are taken in whatever order the caller chooses.
+ *
+ * The rules match Player: draw from the left deck, win with four cards of
+ * the same value, otherwise discard the first card that is not the player's
+ * preferred value (or the first card if all of them are) to the right deck.
+ */
+public class HeadlessGame {
+    private static final int HAND_SIZE = 4;
+
+    private final int numberOfPlayers;
+    private final int[][] hands;
+    private final int[][] deckCards;
+    private final int[] deckHeads;
+    private final int[] deckSizes;
+    private int winner = -1;
+    private long turns;
+
+    /**
+     * Constructor deals the pack exactly as CardGame does: player i is dealt
+     * cards i, i + n, i + 2n and i + 3n, then each deck gets the next four.
+     */
+    public HeadlessGame(List<Integer> pack, int numberOfPlayers) {
+        int n = numberOfPlayers;
+        if (n <= 0) {
+            throw new IllegalArgumentException("Number of players must be positive");
+        }
+        if (pack.size() != n * 8) {
+            throw new IllegalArgumentException(
+                    String.format("Pack must contain exactly %d cards", n * 8));
+        }
+        this.numberOfPlayers = n;
+        this.hands = new int[n][HAND_SIZE + 1];
+        this.deckCards = new int[n][8];
+        this.deckHeads = new int[n];
+        this.deckSizes = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < HAND_SIZE; j++) {
+                hands[i][j] = pack.get(i + j * n);
+            }
+        }
+        int currentIndex = n * HAND_SIZE;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < HAND_SIZE; j++) {
+                addToBottom(i, pack.get(currentIndex++));
+            }
+        }
+
+        // A player dealt a winning hand wins before any turn is taken
+        for (int i = 0; i < n && winner == -1; i++) {
+            if (isWinningHand(hands[i], HAND_SIZE)) {
+                winner = i + 1;
+            }
+        }
+    }
+
+    /* Checking whether the first size cards of a hand are four of a kind */
+    static boolean isWinningHand(int[] hand, int size) {
+        for (int i = 0; i < size; i++) {
+            int same = 0;
+            for (int j = 0; j < size; j++) {
+                if (hand[j] == hand[i]) {
+                    same++;
+                }
+            }
+            if (same >= HAND_SIZE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Returns the index of the card to discard, skipping the preferred value */
+    static int selectDiscardIndex(int[] hand, int size, int preferred) {
+        for (int i = 0; i < size; i++) {
+            if (hand[i] != preferred) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Takes one turn for the player at the given 0-based index. Returns false
+     * without doing anything if the game is over or the player's left deck is
+     * empty.
+     */
+    public boolean step(int playerIndex) {
+        if (winner != -1 || deckSizes[playerIndex] == 0) {
+            return false;
+        }
+        int[] hand = hands[playerIndex];
+        hand[HAND_SIZE] = drawFromTop(playerIndex);
+        boolean won = isWinningHand(hand, HAND_SIZE + 1);
+
+        // Discard, keeping the remaining cards in their original order
+        int discardIndex = selectDiscardIndex(hand, HAND_SIZE + 1, playerIndex + 1);
+        int discard = hand[discardIndex];
+        System.arraycopy(hand, discardIndex + 1, hand, discardIndex, HAND_SIZE - discardIndex);
+        addToBottom((playerIndex + 1) % numberOfPlayers, discard);
+        turns++;
+
+        if (won) {
+            winner = playerIndex + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Plays with players chosen at random until someone wins or maxTurns
+     * turns have been taken. Returns the winner's ID, or -1 if nobody won.
+     */
+    public int play(SplittableRandom random, long maxTurns) {
+        while (winner == -1 && turns < maxTurns) {
+            step(random.nextInt(numberOfPlayers));
+        }
+        return winner;
+    }
+
+    /* Returns the ID of the winning player, or -1 if nobody has won */
+    public int getWinner() {
+        return winner;
+    }
+
+    /* Returns the number of turns taken so far */
+    public long getTurns() {
+        return turns;
+    }
+
+    /* Returns a copy of the hand of the player at the given 0-based index */
+    public int[] getHand(int playerIndex) {
+        int[] hand = new int[HAND_SIZE];
+        System.arraycopy(hands[playerIndex], 0, hand, 0, HAND_SIZE);
+        return hand;
+    }
+
+    /* Returns a copy of the deck at the given 0-based index, top card first */
+    public int[] getDeck(int deckIndex) {
+        int[] cards = deckCards[deckIndex];
+        int[] copy = new int[deckSizes[deckIndex]];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = cards[(deckHeads[deckIndex] + i) % cards.length];
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the current position as an immutable GameState, from which
+     * any number of continuations can be forked
+     */
+    public GameState snapshot() {
+        int[][] deckArrays = new int[numberOfPlayers][];
+        for (int i = 0; i < numberOfPlayers; i++) {
+            deckArrays[i] = getDeck(i);
+        }
+        return new GameState(hands, deckArrays, winner, turns);
+    }
+
+    /* Removes the top card of a deck, which must not be empty */
+    private int drawFromTop(int deckIndex) {
+        int[] cards = deckCards[deckIndex];
+        int card = cards[deckHeads[deckIndex]];
+        deckHeads[deckIndex] = (deckHeads[deckIndex] + 1) % cards.length;
+        deckSizes[deckIndex]--;
+        return card;
+    }
+
+    /* Adds a card to the bottom of a deck, growing its ring buffer if full */
+    private void addToBottom(int deckIndex, int card) {
+        int[] cards = deckCards[deckIndex];
+        int size = deckSizes[deckIndex];
+        if (size == cards.length) {
+            int[] larger = new int[cards.length * 2];
+            for (int i = 0; i < size; i++) {
+                larger[i] = cards[(deckHeads[deckIndex] + i) % cards.length];
+            }
+            deckCards[deckIndex] = larger;
+            deckHeads[deckIndex] = 0;
+            cards = larger;
+        }
+        cards[(deckHeads[deckIndex] + size) % cards.length] = card;
+        deckSizes[deckIndex] = size + 1;
+    }
+}
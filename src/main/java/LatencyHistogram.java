@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+/**
+ * LatencyHistogram counts nanosecond latencies in log-linear buckets: exact
+ * below 16ns, then eight buckets per power of two, so every bucket is within
+ * about 6% of the values it holds. Recording is a few arithmetic operations
+ * and one array increment, with no locking or allocation; each histogram must
+ * have a single recording thread and be read after that thread has finished.
+ */
+public class LatencyHistogram {
+    // Values below this are counted exactly
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int LINEAR_BITS = 4;
+    // Buckets for each power of two above the linear range
+    private static final int BUCKETS_PER_OCTAVE = LINEAR_BUCKETS / 2;
+    // Values of 2^MAX_EXPONENT ns (about 37 minutes) or more go to their own overflow bucket
+    private static final int MAX_EXPONENT = 41;
+    private static final int OVERFLOW_BUCKET = LINEAR_BUCKETS + (MAX_EXPONENT - LINEAR_BITS) * BUCKETS_PER_OCTAVE;
+    private static final int BUCKETS = OVERFLOW_BUCKET + 1;
+
+    private final int[] counts = new int[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    /* Records one latency in nanoseconds; negative values count as zero */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[bucketOf(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    /* Adds every value recorded by another histogram to this one */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    /* Clears every recorded value */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    /* Returns the number of recorded values */
+    public long getCount() {
+        return count;
+    }
+
+    /* Returns the sum of the recorded values in nanoseconds */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /* Returns the largest recorded value in nanoseconds */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /* Returns the mean of the recorded values in nanoseconds */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100) in nanoseconds, as
+     * the upper bound of the bucket that holds it, capped at the maximum
+     */
+    public long getPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        rank = Math.max(1, Math.min(count, rank));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /* Returns the bucket that holds a non-negative value */
+    static int bucketOf(long nanos) {
+        if (nanos < LINEAR_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT) {
+            return OVERFLOW_BUCKET;
+        }
+        int mantissa = (int) (nanos >>> (exponent - LINEAR_BITS + 1));
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * BUCKETS_PER_OCTAVE
+                + (mantissa - BUCKETS_PER_OCTAVE);
+    }
+
+    /* Returns the largest value that falls into a bucket */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        if (bucket == OVERFLOW_BUCKET) {
+            return Long.MAX_VALUE;
+        }
+        int octave = (bucket - LINEAR_BUCKETS) / BUCKETS_PER_OCTAVE;
+        int mantissa = (bucket - LINEAR_BUCKETS) % BUCKETS_PER_OCTAVE + BUCKETS_PER_OCTAVE;
+        int shift = octave + 1;
+        return ((long) (mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,104 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * LatencyReport merges the per-player turn histograms and the per-deck wait
+ * histograms of a finished game and summarises each as p50, p90, p99, p99.9
+ * and max.
+ */
+public class LatencyReport {
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p99.9" };
+
+    private final LatencyHistogram turnLatencies = new LatencyHistogram();
+    private final LatencyHistogram waitLatencies = new LatencyHistogram();
+
+    /* Constructor merges the histograms of stopped players and their decks, skipping any not recorded */
+    public LatencyReport(List<Player> players, List<Deck> decks) {
+        for (Player player : players) {
+            if (player.getTurnLatencies() != null) {
+                turnLatencies.add(player.getTurnLatencies());
+            }
+        }
+        for (Deck deck : decks) {
+            if (deck.getWaitLatencies() != null) {
+                waitLatencies.add(deck.getWaitLatencies());
+            }
+        }
+    }
+
+    /* Returns the merged time from starting a draw to completing the discard */
+    public LatencyHistogram getTurnLatencies() {
+        return turnLatencies;
+    }
+
+    /* Returns the merged time players waited on empty decks */
+    public LatencyHistogram getWaitLatencies() {
+        return waitLatencies;
+    }
+
+    /* Returns one line per histogram, with values in microseconds */
+    @Override
+    public String toString() {
+        return summarise("turn latency", turnLatencies) + System.lineSeparator()
+                + summarise("deck wait", waitLatencies);
+    }
+
+    /**
+     * Writes the report to "latency_report.csv" or "latency_report.json" in
+     * the given directory, with values in nanoseconds. Returns the file.
+     */
+    public File write(File outputDir, OutputFormat format) throws IOException {
+        File file = new File(outputDir, "latency_report." + format.getExtension());
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            if (format == OutputFormat.CSV) {
+                out.println("metric,count,p50_ns,p90_ns,p99_ns,p99.9_ns,max_ns");
+                out.println(csvRow("turn", turnLatencies));
+                out.println(csvRow("deck_wait", waitLatencies));
+            } else {
+                out.println("{");
+                out.println("  \"turn\": " + jsonObject(turnLatencies) + ",");
+                out.println("  \"deck_wait\": " + jsonObject(waitLatencies));
+                out.println("}");
+            }
+        }
+        return file;
+    }
+
+    /* Formats one histogram for the console */
+    private static String summarise(String name, LatencyHistogram histogram) {
+        StringBuilder sb = new StringBuilder(name).append(" (n=").append(histogram.getCount()).append("):");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            sb.append(' ').append(PERCENTILE_NAMES[i]).append('=')
+                    .append(micros(histogram.getPercentileNanos(PERCENTILES[i])));
+        }
+        return sb.append(" max=").append(micros(histogram.getMaxNanos())).append("us").toString();
+    }
+
+    /* Converts nanoseconds to microseconds with one decimal place */
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    /* Formats one histogram as a CSV row */
+    private static String csvRow(String name, LatencyHistogram histogram) {
+        StringBuilder sb = new StringBuilder(name).append(',').append(histogram.getCount());
+        for (double percentile : PERCENTILES) {
+            sb.append(',').append(histogram.getPercentileNanos(percentile));
+        }
+        return sb.append(',').append(histogram.getMaxNanos()).toString();
+    }
+
+    /* Formats one histogram as a JSON object */
+    private static String jsonObject(LatencyHistogram histogram) {
+        StringBuilder sb = new StringBuilder("{\"count\": ").append(histogram.getCount());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            sb.append(", \"").append(PERCENTILE_NAMES[i]).append("_ns\": ")
+                    .append(histogram.getPercentileNanos(PERCENTILES[i]));
+        }
+        return sb.append(", \"max_ns\": ").append(histogram.getMaxNanos()).append('}').toString();
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * LogLevel controls how much each player writes to its output file.
+ */
+public enum LogLevel {
+    // No output file is written at all
+    OFF,
+    // Only the initial hand, the win or exit and the final hand
+    SUMMARY,
+    // Every draw, discard and hand after each turn, as the original game did
+    FULL
+}
@@ -0,0 +1,52 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * LogSegment is one output file shared by a group of players, so a large game
+ * needs one open file per group instead of one per player. Every line already
+ * starts with "player <ID>", so the players' lines can be told apart. The file
+ * is opened by the first player that uses it and closed by the last.
+ */
+public class LogSegment {
+    // Buffer size for the shared writer
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File file;
+    private Writer writer;
+    private int users;
+
+    /* Constructor to create a segment that writes to the given file */
+    public LogSegment(File file) {
+        this.file = file;
+    }
+
+    /* get method to return the segment's file */
+    public File getFile() {
+        return file;
+    }
+
+    /* Registers a player, opening (and truncating) the file for the first one */
+    public synchronized void acquire() throws IOException {
+        if (users++ == 0) {
+            writer = new BufferedWriter(new FileWriter(file), BUFFER_SIZE);
+        }
+    }
+
+    /* Unregisters a player, closing the file once no player uses it */
+    public synchronized void release() throws IOException {
+        if (users > 0 && --users == 0) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /* Writes the first length characters of a line */
+    public synchronized void write(char[] chars, int length) throws IOException {
+        if (writer != null) {
+            writer.write(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * File formats for machine-readable reports
+ */
+public enum OutputFormat {
+    CSV("csv"),
+    JSON("json");
+
+    private final String extension;
+
+    OutputFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /* get method to return the file name extension, without the dot */
+    public String getExtension() {
+        return extension;
+    }
+}
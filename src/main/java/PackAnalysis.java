@@ -0,0 +1,63 @@
+/**
+ * PackAnalysis holds the result of checking whether a pack can ever produce
+ * a winner, and how many turns a win took in simulation.
+ */
+public class PackAnalysis {
+
+    /* Whether a game dealt from the pack can end with a winner */
+    public enum Winnability {
+        // A simulated game was won, so a win is reachable
+        WINNABLE,
+        // No card value has enough copies for four of a kind
+        UNWINNABLE,
+        // No simulated game was won within the turn limit
+        UNKNOWN
+    }
+
+    private final Winnability winnability;
+    private final int trials;
+    private final int wins;
+    private final double meanTurnsToWin;
+
+    /**
+     * Constructor records the outcome of an analysis
+     *
+     * @param winnability    Whether the pack is winnable.
+     * @param trials         Number of simulated games.
+     * @param wins           Number of simulated games that were won.
+     * @param meanTurnsToWin Mean turns taken by the won games, 0 if none.
+     */
+    public PackAnalysis(Winnability winnability, int trials, int wins, double meanTurnsToWin) {
+        this.winnability = winnability;
+        this.trials = trials;
+        this.wins = wins;
+        this.meanTurnsToWin = meanTurnsToWin;
+    }
+
+    /* get method to return whether the pack is winnable */
+    public Winnability getWinnability() {
+        return winnability;
+    }
+
+    /* get method to return the number of simulated games */
+    public int getTrials() {
+        return trials;
+    }
+
+    /* get method to return the number of simulated games that were won */
+    public int getWins() {
+        return wins;
+    }
+
+    /* get method to return the estimated number of turns to a win */
+    public double getMeanTurnsToWin() {
+        return meanTurnsToWin;
+    }
+
+    /* toString() method to provide a one-line report of the analysis */
+    @Override
+    public String toString() {
+        return String.format("%s (%d of %d simulated games won, mean %.1f turns to win)",
+                winnability, wins, trials, meanTurnsToWin);
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * PackAnalyzer checks a pack before a game commits threads to it. A cheap
+ * count of card values rules out packs where no four of a kind exists; the
+ * remaining packs are played as headless games in parallel, with random turn
+ * order, to show a win is reachable and estimate how many turns it takes.
+ */
+public class PackAnalyzer {
+    public static final int DEFAULT_TRIALS = 32;
+    // Turn limit per simulated game, for each player in the ring
+    public static final long DEFAULT_TURNS_PER_PLAYER = 2000;
+    // Most turns simulated by one analysis over all its trials, whatever the ring size
+    public static final long DEFAULT_TURN_BUDGET = 2_000_000;
+    // Smaller budget for servers and batches, which analyze a pack for every job
+    public static final long QUICK_TURN_BUDGET = 200_000;
+
+    /* Analyzes a pack with the default number of trials and total turn budget */
+    public static PackAnalysis analyze(List<Integer> pack, int numberOfPlayers) {
+        return analyze(pack, numberOfPlayers, DEFAULT_TURN_BUDGET);
+    }
+
+    /**
+     * Analyzes a pack with the default number of trials, sharing a budget of
+     * simulated turns between them. Each trial stops after its share of the
+     * budget or the default turn limit for the ring, whichever comes first,
+     * so a large ring costs no more to analyze than the budget allows.
+     */
+    public static PackAnalysis analyze(List<Integer> pack, int numberOfPlayers, long turnBudget) {
+        if (turnBudget <= 0) {
+            throw new IllegalArgumentException("Turn budget must be positive");
+        }
+        long maxTurns = Math.min(DEFAULT_TURNS_PER_PLAYER * numberOfPlayers, turnBudget / DEFAULT_TRIALS);
+        return analyze(pack, numberOfPlayers, DEFAULT_TRIALS, Math.max(1, maxTurns), 1L);
+    }
+
+    /**
+     * Analyzes a pack dealt to the given number of players
+     *
+     * @param trials   Number of games to simulate.
+     * @param maxTurns Turn limit for each simulated game.
+     * @param seed     Seed for the random turn orders, so results repeat.
+     */
+    public static PackAnalysis analyze(List<Integer> pack, int numberOfPlayers, int trials,
+            long maxTurns, long seed) {
+        if (!hasFourOfAKind(pack)) {
+            return new PackAnalysis(PackAnalysis.Winnability.UNWINNABLE, 0, 0, 0);
+        }
+
+        // Turns taken by each trial, or -1 when the trial was not won
+        long[] turnsToWin = IntStream.range(0, trials).parallel()
+                .mapToLong(trial -> {
+                    HeadlessGame game = new HeadlessGame(pack, numberOfPlayers);
+                    int winner = game.play(new SplittableRandom(seed + trial), maxTurns);
+                    return winner == -1 ? -1 : game.getTurns();
+                })
+                .toArray();
+
+        int wins = 0;
+        long totalTurns = 0;
+        for (long turns : turnsToWin) {
+            if (turns >= 0) {
+                wins++;
+                totalTurns += turns;
+            }
+        }
+        PackAnalysis.Winnability winnability = wins > 0
+                ? PackAnalysis.Winnability.WINNABLE
+                : PackAnalysis.Winnability.UNKNOWN;
+        return new PackAnalysis(winnability, trials, wins, wins == 0 ? 0 : (double) totalTurns / wins);
+    }
+
+    /* Checking whether any card value appears at least four times */
+    static boolean hasFourOfAKind(List<Integer> pack) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int card : pack) {
+            if (counts.merge(card, 1, Integer::sum) >= 4) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
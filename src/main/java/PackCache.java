@@ -0,0 +1,187 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * PackCache keeps parsed and validated packs on disk, so a pack file that is
+ * played again is neither parsed nor analyzed again. Entries are named after
+ * the SHA-256 of the pack file's content: an edited file has a new hash and
+ * so simply misses, and two copies of the same pack share one entry.
+ *
+ * A hit maps the entry and copies its cards out in bulk. An entry analyzed
+ * for a different player count is analyzed again and replaced.
+ *
+ * Entry format (big-endian): "PACK", version, player count, winnability
+ * ordinal (-1 if the pack does not fit the player count), trials, wins,
+ * card count, distinct value count, mean turns to win as a double; then the
+ * distinct values, their counts and the cards as ints.
+ */
+public class PackCache {
+    private static final int MAGIC = 0x5041434B; // "PACK"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+
+    private final File dir;
+
+    /* Constructor uses the given directory for entries, creating it when first needed */
+    public PackCache(File dir) {
+        this.dir = dir;
+    }
+
+    /* get method to return the directory holding the entries */
+    public File getDirectory() {
+        return dir;
+    }
+
+    /**
+     * Loads a pack file, from the cache if it holds this exact content.
+     * Otherwise the file is parsed as CardGame.loadPack does, analyzed for
+     * the given player count if it holds 8 cards per player, and cached.
+     * A pack that cannot be parsed throws IllegalArgumentException and is
+     * not cached; failing to write an entry only prints a warning.
+     */
+    public CachedPack load(File packFile, int numberOfPlayers) throws IOException {
+        File entry = new File(dir, hash(packFile) + ".pack");
+        CachedPack cached = entry.isFile() ? read(entry) : null;
+        if (cached != null && cached.getNumberOfPlayers() == numberOfPlayers) {
+            return cached;
+        }
+
+        List<Integer> pack;
+        CardDictionary dictionary;
+        int[] cards;
+        if (cached != null) {
+            pack = cached.getCards();
+            dictionary = cached.getDictionary();
+            cards = new int[cached.size()];
+            for (int i = 0; i < cards.length; i++) {
+                cards[i] = cached.getCard(i);
+            }
+        } else {
+            pack = CardGame.loadPack(packFile);
+            dictionary = new CardDictionary(pack);
+            cards = new int[pack.size()];
+            for (int i = 0; i < cards.length; i++) {
+                cards[i] = pack.get(i);
+            }
+        }
+        PackAnalysis analysis = cards.length == numberOfPlayers * 8
+                ? PackAnalyzer.analyze(pack, numberOfPlayers)
+                : null;
+        CachedPack result = new CachedPack(cards, dictionary, numberOfPlayers, analysis);
+        // Keep an existing analysis rather than replace it with none
+        if (cached == null || analysis != null) {
+            try {
+                write(entry, result);
+            } catch (IOException e) {
+                System.err.println("Warning: could not cache " + packFile + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /* Returns the SHA-256 of a file's content in hexadecimal */
+    static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /* Maps an entry and reads it, or returns null if it is damaged or from another version */
+    private static CachedPack read(File entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(entry.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            int numberOfPlayers = buffer.getInt();
+            int winnability = buffer.getInt();
+            int trials = buffer.getInt();
+            int wins = buffer.getInt();
+            int cardCount = buffer.getInt();
+            int distinct = buffer.getInt();
+            double meanTurnsToWin = buffer.getDouble();
+            if (cardCount < 0 || distinct < 0 || winnability >= PackAnalysis.Winnability.values().length
+                    || length != HEADER_BYTES + 4L * (2L * distinct + cardCount)) {
+                return null;
+            }
+
+            IntBuffer ints = buffer.asIntBuffer();
+            int[] values = new int[distinct];
+            int[] counts = new int[distinct];
+            int[] cards = new int[cardCount];
+            ints.get(values).get(counts).get(cards);
+            PackAnalysis analysis = winnability < 0 ? null
+                    : new PackAnalysis(PackAnalysis.Winnability.values()[winnability], trials, wins, meanTurnsToWin);
+            return new CachedPack(cards, new CardDictionary(values, counts), numberOfPlayers, analysis);
+        }
+    }
+
+    /* Writes an entry to a temporary file and renames it, so readers never see half an entry */
+    private void write(File entry, CachedPack pack) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        CardDictionary dictionary = pack.getDictionary();
+        PackAnalysis analysis = pack.getAnalysis();
+        File temp = File.createTempFile(entry.getName(), ".tmp", dir);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(pack.getNumberOfPlayers());
+            out.writeInt(analysis == null ? -1 : analysis.getWinnability().ordinal());
+            out.writeInt(analysis == null ? 0 : analysis.getTrials());
+            out.writeInt(analysis == null ? 0 : analysis.getWins());
+            out.writeInt(pack.size());
+            out.writeInt(dictionary.size());
+            out.writeDouble(analysis == null ? 0 : analysis.getMeanTurnsToWin());
+            for (int id = 0; id < dictionary.size(); id++) {
+                out.writeInt(dictionary.decode(id));
+            }
+            for (int id = 0; id < dictionary.size(); id++) {
+                out.writeInt(dictionary.getCount(id));
+            }
+            for (int i = 0; i < pack.size(); i++) {
+                out.writeInt(pack.getCard(i));
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,28 +1,48 @@
-import java.io.FileWriter;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
 
 /**
  * Player class represents a player in the card game and
  * manages their hand and interactions with decks
  */
-public class Player implements Runnable {
+public class Player extends PlayerHotFields implements Runnable {
     private static final int HAND_SIZE = 4;
+    // Largest dictionary for which a player keeps a count per card ID
+    private static final int MAX_COUNTED_IDS = 1024;
+    // Keeps the hot fields in PlayerHotFields off the cache line of the fields below
+    long p9, p10, p11, p12, p13, p14, p15;
     private final int playerId;
     private final List<Integer> hand;
     private final Deck leftDeck;
-    private final Deck rightDeck;
+    private final DiscardPile rightDeck;
     private final AtomicBoolean gameOver;
-    private final CountDownLatch gameEndLatch;
-    private final FileWriter outputWriter;
-    private final Object handLock = new Object();
-    private volatile boolean hasExited = false;
+    private CountDownLatch gameEndLatch;
+    private final PlayerLog log;
+    // Held for every change to the hand; a checkpoint holds every player's at once
+    private final ReentrantLock handLock = new ReentrantLock();
+    private IntPredicate winArbiter;
+    // Receives the player's moves when set
+    private GameEventPublisher events;
+    // Encodes the hand's cards when set; the decks must then hold IDs too
+    private CardDictionary dictionary;
+    // The card this player keeps, as stored in the hand
+    private int preferredCard;
+    // Scratch count per card ID for the win check, or null to compare pairwise
+    private int[] idCounts;
+    // Most turns taken in one go when the left deck has a backlog; 1 takes one turn at a time
+    private int turnBatchSize = 1;
+    // Scratch space for a batch of drawn cards and their discards
+    private int[] batchCards;
+    private int[] batchDiscards;
+    // Time from starting a draw to completing the discard, recorded only by
+    // this player's thread; null unless latencies are being recorded
+    private LatencyHistogram turnLatencies;
 
     /**
      * Constructor starts the player's state and
@@ -35,8 +55,43 @@ public class Player implements Runnable {
      * @param gameOver     Shared game state flag.
      * @param gameEndLatch Latch to signal game completion.
      */
-    public Player(int id, List<Integer> initialHand, Deck leftDeck, Deck rightDeck,
+    public Player(int id, List<Integer> initialHand, Deck leftDeck, DiscardPile rightDeck,
             AtomicBoolean gameOver, CountDownLatch gameEndLatch) throws IOException {
+        this(id, initialHand, leftDeck, rightDeck, gameOver, gameEndLatch, new File("."));
+    }
+
+    /**
+     * Constructor starts the player's state and writes the initial hand to an
+     * output file inside the given directory
+     *
+     * @param outputDir Directory that receives "player<ID>_output.txt".
+     */
+    public Player(int id, List<Integer> initialHand, Deck leftDeck, DiscardPile rightDeck,
+            AtomicBoolean gameOver, CountDownLatch gameEndLatch, File outputDir) throws IOException {
+        this(id, initialHand, leftDeck, rightDeck, gameOver, gameEndLatch, outputDir, LogLevel.FULL);
+    }
+
+    /**
+     * Constructor starts the player's state and logs the initial hand at the
+     * given log level. With LogLevel.OFF no output file is created.
+     *
+     * @param logLevel How much the player writes to its output file.
+     */
+    public Player(int id, List<Integer> initialHand, Deck leftDeck, DiscardPile rightDeck,
+            AtomicBoolean gameOver, CountDownLatch gameEndLatch, File outputDir,
+            LogLevel logLevel) throws IOException {
+        this(id, initialHand, leftDeck, rightDeck, gameOver, gameEndLatch,
+                new PlayerLog(id, new File(outputDir, "player" + id + "_output.txt"), logLevel));
+    }
+
+    /**
+     * Constructor starts the player's state and logs the initial hand to the
+     * given log, which may write to a file shared with other players.
+     *
+     * @param log Where the player's moves are written.
+     */
+    public Player(int id, List<Integer> initialHand, Deck leftDeck, DiscardPile rightDeck,
+            AtomicBoolean gameOver, CountDownLatch gameEndLatch, PlayerLog log) throws IOException {
         if (initialHand.size() != HAND_SIZE) {
             throw new IllegalArgumentException("Initial hand must contain exactly 4 cards");
         }
@@ -46,43 +101,185 @@ public class Player implements Runnable {
         this.rightDeck = rightDeck;
         this.gameOver = gameOver;
         this.gameEndLatch = gameEndLatch;
-        this.outputWriter = new FileWriter("player" + id + "_output.txt");
-        writeToFile("player " + id + " initial hand " + formatHand());
+        this.log = log;
+        this.preferredCard = id;
+        log.initialHand(hand);
     }
 
-    /*
-     * Write a message to the player's output file
+    /**
+     * Reinitializes the player for a new game on the same decks, reusing its
+     * hand list. The output file is reopened and the new initial hand logged.
+     * Must only be called while the player's previous game has finished.
+     */
+    public void reset(List<Integer> initialHand, CountDownLatch gameEndLatch) throws IOException {
+        reset(initialHand, gameEndLatch, dictionary);
+    }
+
+    /**
+     * Reinitializes the player for a new game whose pack has the given card
+     * dictionary. The initial hand is given as card values.
      */
-    private void writeToFile(String message) throws IOException {
-        synchronized (outputWriter) {
-            outputWriter.write(message + "\n");
-            outputWriter.flush();
+    public void reset(List<Integer> initialHand, CountDownLatch gameEndLatch, CardDictionary dictionary)
+            throws IOException {
+        if (initialHand.size() != HAND_SIZE) {
+            throw new IllegalArgumentException("Initial hand must contain exactly 4 cards");
+        }
+        this.gameEndLatch = gameEndLatch;
+        hasExited = false;
+        hasWon = false;
+        stopRequested = false;
+        turnCount = 0;
+        if (turnLatencies != null) {
+            turnLatencies.reset();
+        }
+        firstTurnNanos = 0;
+        log.reopen();
+        handLock.lock();
+        try {
+            useDictionary(dictionary);
+            hand.clear();
+            for (int card : initialHand) {
+                hand.add(encode(card));
+            }
+            log.initialHand(hand);
+        } finally {
+            handLock.unlock();
         }
     }
 
-    /* Formatting the player's hand as a space-separated string. */
-    private String formatHand() {
-        synchronized (handLock) {
-            return hand.stream()
-                    .map(String::valueOf)
-                    .collect(Collectors.joining(" "));
+    /**
+     * Set the dictionary of the pack being played. The hand is re-encoded
+     * and the player's decks must hold dictionary IDs as well. Must be called
+     * before the player's thread starts.
+     */
+    public void setCardDictionary(CardDictionary dictionary) {
+        handLock.lock();
+        try {
+            List<Integer> values = getHand();
+            useDictionary(dictionary);
+            hand.clear();
+            for (int card : values) {
+                hand.add(encode(card));
+            }
+        } finally {
+            handLock.unlock();
+        }
+    }
+
+    /* Switches to a dictionary, sizing the win-check counts for it */
+    private void useDictionary(CardDictionary dictionary) {
+        this.dictionary = dictionary;
+        log.setCardDictionary(dictionary);
+        if (dictionary == null) {
+            preferredCard = playerId;
+            idCounts = null;
+            return;
+        }
+        preferredCard = dictionary.encode(playerId);
+        if (dictionary.size() > MAX_COUNTED_IDS) {
+            idCounts = null;
+        } else if (idCounts == null || idCounts.length < dictionary.size()) {
+            idCounts = new int[dictionary.size()];
+        }
+    }
+
+    /* Returns how a card value is stored in the hand */
+    private int encode(int value) {
+        return dictionary == null ? value : dictionary.encode(value);
+    }
+
+    /* Returns the card value of a stored card */
+    private int decode(int card) {
+        return dictionary == null ? card : dictionary.decode(card);
+    }
+
+    /**
+     * Set an arbiter that must also accept this player's win, for games whose
+     * players are spread over several processes. The arbiter is given the
+     * player's ID and returns false if another player has already won.
+     * Must be called before the player's thread starts.
+     */
+    public void setWinArbiter(IntPredicate winArbiter) {
+        this.winArbiter = winArbiter;
+    }
+
+    /**
+     * Set the publisher that receives this player's draws, discards, win and
+     * exit. Must be called before the player's thread starts.
+     */
+    public void setEventPublisher(GameEventPublisher events) {
+        this.events = events;
+    }
+
+    /**
+     * Set the most turns the player takes in one go. With more than one, a
+     * player whose left deck has a backlog plays several of its cards under a
+     * single hand lock and discards them with one append to the right deck.
+     * The moves and the log are the same as with single turns. Must be called
+     * before the player's thread starts.
+     */
+    public void setTurnBatchSize(int turnBatchSize) {
+        if (turnBatchSize <= 0) {
+            throw new IllegalArgumentException("Turn batch size must be positive");
+        }
+        this.turnBatchSize = turnBatchSize;
+        this.batchCards = new int[turnBatchSize];
+        this.batchDiscards = new int[turnBatchSize];
+    }
+
+    /* Publishes one move if anybody is listening; card is a card value */
+    private void publish(GameEvent.Type type, int card, int deckId) {
+        if (events != null && events.hasSubscribers()) {
+            events.publish(new GameEvent(type, playerId, card, deckId), () -> stopRequested);
         }
     }
 
+    /*
+     * Claims the win for this player. The shared game-over flag is set either
+     * way, because a denied claim means another player has already won.
+     */
+    private boolean claimWin() {
+        return gameOver.compareAndSet(false, true)
+                && (winArbiter == null || winArbiter.test(playerId));
+    }
+
     /*
      * Checking if the player's hand includes all cards of the smae value,
      * indicating a win i
      */
     protected boolean checkWinningHand() {
-        synchronized (handLock) {
-            Map<Integer, Integer> counts = new HashMap<>();
-            for (int card : hand) {
-                counts.merge(card, 1, Integer::sum);
-                if (counts.get(card) == HAND_SIZE) {
+        handLock.lock();
+        try {
+            int size = hand.size();
+            if (idCounts != null) {
+                // Count each card ID, then clear only the counts just used
+                boolean won = false;
+                for (int i = 0; i < size; i++) {
+                    if (++idCounts[hand.get(i)] == HAND_SIZE) {
+                        won = true;
+                    }
+                }
+                for (int i = 0; i < size; i++) {
+                    idCounts[hand.get(i)] = 0;
+                }
+                return won;
+            }
+            // Without a small dictionary, compare the few cards pairwise
+            for (int i = 0; i < size; i++) {
+                int card = hand.get(i);
+                int same = 0;
+                for (int j = 0; j < size; j++) {
+                    if (hand.get(j) == card) {
+                        same++;
+                    }
+                }
+                if (same >= HAND_SIZE) {
                     return true;
                 }
             }
             return false;
+        } finally {
+            handLock.unlock();
         }
     }
 
@@ -91,14 +288,17 @@ public class Player implements Runnable {
      * ID
      */
     private int selectCardToDiscard() {
-        synchronized (handLock) {
+        handLock.lock();
+        try {
             // Prefer discarding non-preferred cards
             for (int card : hand) {
-                if (card != playerId) {
+                if (card != preferredCard) {
                     return card;
                 }
             }
             return hand.get(0);
+        } finally {
+            handLock.unlock();
         }
     }
 
@@ -107,22 +307,37 @@ public class Player implements Runnable {
      * discards a card.
      */
     private void performTurn() throws IOException, InterruptedException {
-        synchronized (handLock) {
+        if (turnBatchSize > 1) {
+            performBatchedTurns();
+            return;
+        }
+        // Skip the turn while the right deck is full. Only this player adds to
+        // that deck, so it cannot fill up between this check and the discard.
+        if (rightDeck.isFull()) {
+            return;
+        }
+        long turnStart = System.nanoTime();
+        // Wait for a card without holding the hand lock, so the hand can still
+        // be inspected while this player waits on an empty deck
+        leftDeck.waitForCard();
+        handLock.lock();
+        try {
             // Draw a card from the left deck
             int drawnCard = leftDeck.drawFromTop();
             hand.add(drawnCard);
-            writeToFile("player " + playerId + " draws a " + drawnCard +
-                    " from deck " + leftDeck.getDeckId());
+            log.draws(drawnCard, leftDeck.getDeckId());
+            publish(GameEvent.Type.DRAW, decode(drawnCard), leftDeck.getDeckId());
 
             // Check if the player has a winning hand.
             if (checkWinningHand()) {
-                if (gameOver.compareAndSet(false, true)) {
+                if (claimWin()) {
                     // Maintain hand size by discarding a card before exiting.
                     int discardCard = selectCardToDiscard();
                     hand.remove(Integer.valueOf(discardCard));
                     rightDeck.addToBottom(discardCard);
-                    writeToFile("player " + playerId + " discards a " + discardCard +
-                            " to deck " + rightDeck.getDeckId());
+                    log.discards(discardCard, rightDeck.getDeckId());
+                    publish(GameEvent.Type.DISCARD, decode(discardCard), rightDeck.getDeckId());
+                    completeTurn(turnStart);
                     handleWin();
                     return;
                 }
@@ -132,9 +347,60 @@ public class Player implements Runnable {
             int discardCard = selectCardToDiscard();
             hand.remove(Integer.valueOf(discardCard));
             rightDeck.addToBottom(discardCard);
-            writeToFile("player " + playerId + " discards a " + discardCard +
-                    " to deck " + rightDeck.getDeckId());
-            writeToFile("player " + playerId + " current hand is " + formatHand());
+            log.discards(discardCard, rightDeck.getDeckId());
+            publish(GameEvent.Type.DISCARD, decode(discardCard), rightDeck.getDeckId());
+            log.currentHand(hand);
+            completeTurn(turnStart);
+        } finally {
+            handLock.unlock();
+        }
+    }
+
+    /*
+     * Takes up to turnBatchSize turns with the cards waiting in the left deck.
+     * The cards are copied from the top of the deck and played one by one as
+     * performTurn would; only the cards actually played are then removed, so
+     * after a win the rest stay on top of the deck. Everything happens under
+     * the hand lock, so a checkpoint never sees a card in flight.
+     */
+    private void performBatchedTurns() throws IOException, InterruptedException {
+        // Only this player adds to the right deck, so its room can only grow
+        int room = rightDeck.getRemainingCapacity();
+        if (room <= 0) {
+            return;
+        }
+        long turnStart = System.nanoTime();
+        leftDeck.waitForCard();
+        handLock.lock();
+        try {
+            int available = leftDeck.peekTop(batchCards, Math.min(turnBatchSize, room));
+            int played = 0;
+            boolean won = false;
+            while (played < available && !won && !stopRequested) {
+                int drawnCard = batchCards[played];
+                hand.add(drawnCard);
+                log.draws(drawnCard, leftDeck.getDeckId());
+                publish(GameEvent.Type.DRAW, decode(drawnCard), leftDeck.getDeckId());
+
+                won = checkWinningHand() && claimWin();
+                int discardCard = selectCardToDiscard();
+                hand.remove(Integer.valueOf(discardCard));
+                batchDiscards[played++] = discardCard;
+                log.discards(discardCard, rightDeck.getDeckId());
+                publish(GameEvent.Type.DISCARD, decode(discardCard), rightDeck.getDeckId());
+                if (!won) {
+                    log.currentHand(hand);
+                }
+                completeTurn(turnStart);
+                turnStart = System.nanoTime();
+            }
+            leftDeck.removeFromTop(played);
+            rightDeck.addAllToBottom(batchDiscards, played);
+            if (won) {
+                handleWin();
+            }
+        } finally {
+            handLock.unlock();
         }
     }
 
@@ -144,13 +410,15 @@ public class Player implements Runnable {
         try {
             // Check for an initial winning hand.
             if (checkWinningHand()) {
-                if (gameOver.compareAndSet(false, true)) {
+                if (claimWin()) {
                     handleWin();
                     return;
                 }
             }
 
-            while (!gameOver.get()) {
+            // Poll this player's own stop flag rather than the shared game-over
+            // flag, so the loop reads a cache line no other player writes
+            while (!stopRequested) {
                 // Performing turns until the game is over
                 performTurn();
                 Thread.sleep(10); // Prevent busy waiting
@@ -161,43 +429,170 @@ public class Player implements Runnable {
                 handleNonWinnerExit();
             }
 
+        } catch (InterruptedException e) {
+            // Interrupted while waiting on an empty deck after the game ended
+            Thread.currentThread().interrupt();
+            try {
+                if (gameOver.get()) {
+                    handleNonWinnerExit();
+                }
+            } catch (IOException ioe) {
+                ioe.printStackTrace();
+            }
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
             try {
-                outputWriter.close();
+                log.close();
             } catch (IOException e) {
                 e.printStackTrace();
             }
         }
     }
 
+    /* Closes the player's output file, which a player that never ran still holds open */
+    public void closeLog() throws IOException {
+        log.close();
+    }
+
+    /**
+     * Asks the player to stop once its current turn is done. Whoever ends the
+     * game sets the shared game-over flag and then calls this on every player.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /* Records a finished turn that started at turnStart */
+    private void completeTurn(long turnStart) {
+        long now = System.nanoTime();
+        if (turnLatencies != null) {
+            turnLatencies.record(now - turnStart);
+        }
+        if (firstTurnNanos == 0) {
+            firstTurnNanos = now;
+        }
+        turnCount++;
+    }
+
     /* Handling actions when the player wins/* */
     private void handleWin() throws IOException {
         System.out.println("player " + playerId + " wins");
-        writeToFile("player " + playerId + " wins");
-        writeToFile("player " + playerId + " exits");
-        writeToFile("player " + playerId + " final hand: " + formatHand());
+        log.wins();
+        publish(GameEvent.Type.WIN, -1, -1);
+        handLock.lock();
+        try {
+            log.exits(hand);
+        } finally {
+            handLock.unlock();
+        }
+        publish(GameEvent.Type.EXIT, -1, -1);
+        hasWon = true;
         hasExited = true;
+        // The winner stops itself; everybody else is told by whoever ends the game
+        stopRequested = true;
         gameEndLatch.countDown();
     }
 
     /* Handles actions when a non-winner exits the game */
     private void handleNonWinnerExit() throws IOException {
         if (!hasExited) {
-            writeToFile("player " + playerId + " exits");
-            writeToFile("player " + playerId + " final hand: " + formatHand());
+            handLock.lock();
+            try {
+                log.exits(hand);
+            } finally {
+                handLock.unlock();
+            }
+            publish(GameEvent.Type.EXIT, -1, -1);
             hasExited = true;
         }
     }
 
-    /* Returns a copy of the player's hand */
+    /* Returns a copy of the player's hand as card values */
     public List<Integer> getHand() {
-        synchronized (handLock) {
-            return new ArrayList<>(hand);
+        handLock.lock();
+        try {
+            List<Integer> values = new ArrayList<>(hand.size());
+            for (int card : hand) {
+                values.add(decode(card));
+            }
+            return values;
+        } finally {
+            handLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the hand as stored, which are dictionary IDs when the
+     * player has a card dictionary
+     */
+    public int[] getHandIds() {
+        handLock.lock();
+        try {
+            int[] ids = new int[hand.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = hand.get(i);
+            }
+            return ids;
+        } finally {
+            handLock.unlock();
+        }
+    }
+
+    /**
+     * Holds the hand lock, so the player cannot be part way through a turn
+     * until unlockHand is called. A checkpoint holds every player's hand lock
+     * at once, taken in player order.
+     */
+    void lockHand() {
+        handLock.lock();
+    }
+
+    /* Releases the hand lock taken by lockHand */
+    void unlockHand() {
+        handLock.unlock();
+    }
+
+    /* Checking whether this player won the game */
+    public boolean hasWon() {
+        return hasWon;
+    }
+
+    /* Set the number of turns completed, when resuming a game from a checkpoint */
+    public void setTurnCount(int turnCount) {
+        this.turnCount = turnCount;
+    }
+
+    /* Returns System.nanoTime() at the end of the player's first turn, or 0 if it has taken none */
+    public long getFirstTurnNanos() {
+        return firstTurnNanos;
+    }
+
+    /* Returns the number of turns the player has completed */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Set whether the player records its turn times. The histogram is only
+     * created once recording is turned on; call this before the player runs.
+     */
+    public void setRecordLatencies(boolean record) {
+        if (!record) {
+            turnLatencies = null;
+        } else if (turnLatencies == null) {
+            turnLatencies = new LatencyHistogram();
         }
     }
 
+    /**
+     * Returns the histogram of turn times, or null if they are not recorded.
+     * Read it only once the player's thread has stopped.
+     */
+    public LatencyHistogram getTurnLatencies() {
+        return turnLatencies;
+    }
+
     /* Returns the player's ID as a string. */
     public String getPlayerId() {
         return String.valueOf(playerId);
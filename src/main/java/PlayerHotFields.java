@@ -0,0 +1,14 @@
+/**
+ * PlayerHotFields holds the Player fields written by the player's own thread
+ * during a game, kept off the cache lines of neighbouring objects by the
+ * padding before them and by the padding Player declares first after them.
+ */
+abstract class PlayerHotFields extends CacheLinePadding {
+    // System.nanoTime() when the first turn of this game finished, 0 before then
+    volatile long firstTurnNanos;
+    volatile int turnCount;
+    volatile boolean hasExited;
+    volatile boolean hasWon;
+    // Set once when the game ends; only this player's loop polls it
+    volatile boolean stopRequested;
+}
@@ -0,0 +1,203 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * PlayerLog writes a player's moves to its output file at the configured log
+ * level. Messages are built from primitive arguments into a reused buffer, so
+ * a message below the log level costs only a level check and no string work.
+ * The output file is either the player's own or a LogSegment shared with
+ * other players.
+ */
+public class PlayerLog {
+    private final int playerId;
+    private final File outputFile;
+    private final LogSegment segment;
+    private final LogLevel level;
+    private final StringBuilder line = new StringBuilder(64);
+    private char[] chars = new char[64];
+    private Writer writer;
+    private boolean segmentOpen;
+    // Decodes logged cards to their values; null when cards are plain values
+    private CardDictionary dictionary;
+
+    /**
+     * Constructor opens the output file unless logging is off
+     *
+     * @param playerId   ID of the player whose moves are logged.
+     * @param outputFile File that receives the log lines.
+     * @param level      How much to write.
+     */
+    public PlayerLog(int playerId, File outputFile, LogLevel level) throws IOException {
+        this.playerId = playerId;
+        this.outputFile = outputFile;
+        this.segment = null;
+        this.level = level;
+        reopen();
+    }
+
+    /**
+     * Constructor writes to a file shared with other players unless logging
+     * is off
+     *
+     * @param playerId ID of the player whose moves are logged.
+     * @param segment  Shared file that receives the log lines.
+     * @param level    How much to write.
+     */
+    public PlayerLog(int playerId, LogSegment segment, LogLevel level) throws IOException {
+        this.playerId = playerId;
+        this.outputFile = segment.getFile();
+        this.segment = segment;
+        this.level = level;
+        reopen();
+    }
+
+    /* Truncates the output file so the log can be reused for a new game */
+    public synchronized void reopen() throws IOException {
+        close();
+        if (level != LogLevel.OFF) {
+            if (segment != null) {
+                segment.acquire();
+                segmentOpen = true;
+            } else {
+                writer = new BufferedWriter(new FileWriter(outputFile));
+            }
+        }
+    }
+
+    /**
+     * Set the dictionary of the cards passed to this log, which are then
+     * dictionary IDs and are written as their card values
+     */
+    public synchronized void setCardDictionary(CardDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /* Checking whether messages of the given level are written */
+    public boolean isEnabled(LogLevel messageLevel) {
+        return level != LogLevel.OFF && level.compareTo(messageLevel) >= 0;
+    }
+
+    /* Logs the hand the player was dealt */
+    public void initialHand(List<Integer> hand) throws IOException {
+        if (isEnabled(LogLevel.SUMMARY)) {
+            synchronized (this) {
+                start().append(" initial hand");
+                appendHand(hand);
+                writeLine(true);
+            }
+        }
+    }
+
+    /* Logs a card drawn from the given deck */
+    public void draws(int card, int deckId) throws IOException {
+        if (isEnabled(LogLevel.FULL)) {
+            synchronized (this) {
+                start().append(" draws a ").append(decode(card)).append(" from deck ").append(deckId);
+                writeLine(false);
+            }
+        }
+    }
+
+    /* Logs a card discarded to the given deck */
+    public void discards(int card, int deckId) throws IOException {
+        if (isEnabled(LogLevel.FULL)) {
+            synchronized (this) {
+                start().append(" discards a ").append(decode(card)).append(" to deck ").append(deckId);
+                writeLine(false);
+            }
+        }
+    }
+
+    /* Logs the player's hand at the end of a turn */
+    public void currentHand(List<Integer> hand) throws IOException {
+        if (isEnabled(LogLevel.FULL)) {
+            synchronized (this) {
+                start().append(" current hand is");
+                appendHand(hand);
+                writeLine(false);
+            }
+        }
+    }
+
+    /* Logs that the player has won */
+    public void wins() throws IOException {
+        if (isEnabled(LogLevel.SUMMARY)) {
+            synchronized (this) {
+                start().append(" wins");
+                writeLine(false);
+            }
+        }
+    }
+
+    /* Logs that the player has left the game, followed by its final hand */
+    public void exits(List<Integer> hand) throws IOException {
+        if (isEnabled(LogLevel.SUMMARY)) {
+            synchronized (this) {
+                start().append(" exits");
+                writeLine(false);
+                start().append(" final hand:");
+                appendHand(hand);
+                writeLine(true);
+            }
+        }
+    }
+
+    /* Flushes and closes the output file */
+    public synchronized void close() throws IOException {
+        if (segmentOpen) {
+            segmentOpen = false;
+            segment.release();
+        }
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /* Starts a new line with the "player <ID>" prefix */
+    private StringBuilder start() {
+        line.setLength(0);
+        return line.append("player ").append(playerId);
+    }
+
+    /* Appends the cards of a hand, each preceded by a space */
+    private void appendHand(List<Integer> hand) {
+        for (int i = 0; i < hand.size(); i++) {
+            line.append(' ').append(decode(hand.get(i)));
+        }
+    }
+
+    /* Returns the card value of a logged card */
+    private int decode(int card) {
+        return dictionary == null ? card : dictionary.decode(card);
+    }
+
+    /*
+     * Copies the built line into the reused character buffer and writes it.
+     * Summary lines are flushed straight away; turn lines stay buffered. A
+     * shared segment is only flushed when it is closed.
+     */
+    private void writeLine(boolean flush) throws IOException {
+        if (writer == null && !segmentOpen) {
+            return;
+        }
+        line.append('\n');
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        if (segmentOpen) {
+            segment.write(chars, length);
+            return;
+        }
+        writer.write(chars, 0, length);
+        if (flush) {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * RemoteDeck stands in for a deck owned by the next process of a distributed
+ * ring. It is only a discard pile: the owning process draws the cards and
+ * writes the deck's output file. Discarded cards are queued locally and a
+ * sender thread writes everything queued so far as one batch, so transfers
+ * are batched and the player never waits on the network.
+ *
+ * Frames on the link are a type byte followed by their data: CARDS carries a
+ * count and that many cards, DONE marks the end of the game's cards.
+ */
+public class RemoteDeck implements DiscardPile {
+    static final byte CARDS = 1;
+    static final byte DONE = 2;
+
+    private final int deckId;
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final Object queueLock = new Object();
+    private int[] queued = new int[64];
+    private int queuedCount;
+    private boolean done;
+    private IOException failure;
+    private final Thread sender;
+
+    /**
+     * Constructor starts the sender thread for a deck whose cards live on the
+     * other end of the given socket
+     */
+    public RemoteDeck(int deckId, Socket socket) throws IOException {
+        this.deckId = deckId;
+        this.socket = socket;
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.sender = new Thread(this::sendLoop, "deck" + deckId + "-sender");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /* get method to return the ID of the remote deck */
+    @Override
+    public int getDeckId() {
+        return deckId;
+    }
+
+    /** Queue a card for the bottom of the remote deck */
+    @Override
+    public void addToBottom(int card) {
+        synchronized (queueLock) {
+            if (queuedCount == queued.length) {
+                int[] larger = new int[queued.length * 2];
+                System.arraycopy(queued, 0, larger, 0, queuedCount);
+                queued = larger;
+            }
+            queued[queuedCount++] = card;
+            queueLock.notify();
+        }
+    }
+
+    /** Queue several cards for the bottom of the remote deck, in array order */
+    @Override
+    public void addAllToBottom(int[] cards, int count) {
+        synchronized (queueLock) {
+            if (queuedCount + count > queued.length) {
+                int[] larger = new int[Math.max(queued.length * 2, queuedCount + count)];
+                System.arraycopy(queued, 0, larger, 0, queuedCount);
+                queued = larger;
+            }
+            System.arraycopy(cards, 0, queued, queuedCount, count);
+            queuedCount += count;
+            queueLock.notify();
+        }
+    }
+
+    /* Cards are queued without limit, so a whole batch always fits */
+    @Override
+    public int getRemainingCapacity() {
+        return Deck.UNBOUNDED;
+    }
+
+    /* A remote deck never applies backpressure to the discarding player */
+    @Override
+    public boolean isFull() {
+        return false;
+    }
+
+    /**
+     * Sends every queued card followed by a DONE frame, then waits for the
+     * sender to finish and closes the link
+     */
+    public void finish() throws IOException, InterruptedException {
+        synchronized (queueLock) {
+            done = true;
+            queueLock.notify();
+        }
+        sender.join();
+        socket.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /* Writes queued cards in batches until the game's cards are finished */
+    private void sendLoop() {
+        int[] batch = new int[64];
+        try {
+            while (true) {
+                int count;
+                boolean last;
+                synchronized (queueLock) {
+                    while (queuedCount == 0 && !done) {
+                        queueLock.wait();
+                    }
+                    // Swap buffers so players can keep queueing while we write
+                    int[] filled = queued;
+                    queued = batch;
+                    batch = filled;
+                    count = queuedCount;
+                    queuedCount = 0;
+                    last = done;
+                }
+                if (count > 0) {
+                    out.writeByte(CARDS);
+                    out.writeInt(count);
+                    for (int i = 0; i < count; i++) {
+                        out.writeInt(batch[i]);
+                    }
+                }
+                if (last) {
+                    out.writeByte(DONE);
+                    out.flush();
+                    return;
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads frames sent by a RemoteDeck into the local deck until DONE.
+     * Returns the number of cards received.
+     */
+    static long receive(DataInputStream in, Deck deck) throws IOException {
+        long received = 0;
+        while (true) {
+            byte type = in.readByte();
+            if (type == DONE) {
+                return received;
+            }
+            if (type != CARDS) {
+                throw new IOException("Unknown frame type " + type);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                deck.addToBottom(in.readInt());
+            }
+            received += count;
+        }
+    }
+}
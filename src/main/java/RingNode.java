@@ -0,0 +1,332 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * RingNode plays a contiguous range of players from a ring that is spread
+ * over several processes. The node owns the left decks of its players; the
+ * right deck of its last player belongs to the next node and is reached
+ * through a RemoteDeck. Wins are arbitrated by a WinCoordinator, which also
+ * tells every node when the game is over.
+ */
+public class RingNode {
+    private static final int CARDS_PER_PLAYER = 4;
+    private static final int CARDS_PER_DECK = 4;
+    private static final long CONNECT_TIMEOUT_MS = 30000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+
+    private final int numberOfPlayers;
+    private final int firstPlayer;
+    private final int lastPlayer;
+    private final List<Integer> pack;
+    private final File outputDir;
+    private final ServerSocket upstreamServer;
+    private final List<Deck> decks = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+    private final AtomicBoolean gameOver = new AtomicBoolean(false);
+    private final CountDownLatch gameEndLatch = new CountDownLatch(1);
+    private final CountDownLatch startSignal = new CountDownLatch(1);
+    private final BlockingQueue<Boolean> claimReplies = new ArrayBlockingQueue<>(1);
+    private DataOutputStream control;
+    private volatile int winner = -1;
+
+    /**
+     * Constructor binds the socket on which the previous node will connect.
+     * Port 0 picks any free port.
+     *
+     * @param numberOfPlayers Players in the whole ring.
+     * @param firstPlayer     First player ID played by this node.
+     * @param lastPlayer      Last player ID played by this node.
+     * @param pack            The whole ring's pack, dealt as CardGame deals it.
+     * @param port            Port for the previous node's card link.
+     * @param outputDir       Directory for this node's output files.
+     */
+    public RingNode(int numberOfPlayers, int firstPlayer, int lastPlayer, List<Integer> pack,
+            int port, File outputDir) throws IOException {
+        if (firstPlayer < 1 || lastPlayer < firstPlayer || lastPlayer > numberOfPlayers) {
+            throw new IllegalArgumentException("Invalid player range " + firstPlayer + "-" + lastPlayer);
+        }
+        if (pack.size() != numberOfPlayers * 8) {
+            throw new IllegalArgumentException(
+                    String.format("Pack must contain exactly %d cards", numberOfPlayers * 8));
+        }
+        this.numberOfPlayers = numberOfPlayers;
+        this.firstPlayer = firstPlayer;
+        this.lastPlayer = lastPlayer;
+        this.pack = pack;
+        this.outputDir = outputDir;
+        this.upstreamServer = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    /* get method to return the port the previous node connects to */
+    public int getPort() {
+        return upstreamServer.getLocalPort();
+    }
+
+    /**
+     * Links this node into the ring, plays until the coordinator declares a
+     * winner, then writes the node's output files. Returns the winner's ID.
+     */
+    public int play(int nextPort, int coordinatorPort) throws IOException, InterruptedException {
+        int n = numberOfPlayers;
+
+        // Link to the next node, which owns our last player's right deck
+        RemoteDeck remoteDeck = new RemoteDeck(lastPlayer % n + 1, connect(nextPort));
+
+        // Accept the previous node, whose last player discards into our first deck
+        Socket upstream = upstreamServer.accept();
+        upstreamServer.close();
+
+        // Create and deal our decks exactly as CardGame deals the full ring
+        for (int id = firstPlayer; id <= lastPlayer; id++) {
+            Deck deck = new Deck(id);
+            int start = n * CARDS_PER_PLAYER + (id - 1) * CARDS_PER_DECK;
+            for (int j = 0; j < CARDS_PER_DECK; j++) {
+                deck.addToBottom(pack.get(start + j));
+            }
+            decks.add(deck);
+        }
+        for (int id = firstPlayer; id <= lastPlayer; id++) {
+            List<Integer> hand = new ArrayList<>();
+            for (int j = 0; j < CARDS_PER_PLAYER; j++) {
+                hand.add(pack.get(id - 1 + j * n));
+            }
+            int index = id - firstPlayer;
+            DiscardPile rightDeck = id == lastPlayer ? remoteDeck : decks.get(index + 1);
+            Player player = new Player(id, hand, decks.get(index), rightDeck, gameOver, gameEndLatch, outputDir);
+            player.setWinArbiter(this::claimWin);
+            players.add(player);
+        }
+
+        // Receive cards from the previous node until it reports DONE
+        Thread receiver = new Thread(() -> {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(upstream.getInputStream()))) {
+                RemoteDeck.receive(in, decks.get(0));
+            } catch (IOException e) {
+                System.err.println("Error receiving cards: " + e.getMessage());
+            }
+        }, "deck" + firstPlayer + "-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+
+        // Register with the coordinator and wait until every node is linked
+        Socket coordinator = connect(coordinatorPort);
+        control = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+        Thread controlReader = new Thread(() -> readControl(coordinator), "ring-control");
+        controlReader.setDaemon(true);
+        controlReader.start();
+        sendControl(WinCoordinator.READY, -1);
+        startSignal.await();
+
+        List<Thread> threads = new ArrayList<>();
+        for (Player player : players) {
+            Thread t = new Thread(player, "player" + player.getPlayerId());
+            threads.add(t);
+            t.start();
+        }
+
+        gameEndLatch.await();
+        gameOver.set(true);
+        for (Player player : players) {
+            player.requestStop();
+        }
+
+        // Signal every player at once. One waiting on an empty deck exits
+        // straight away; one in the middle of a turn finishes it first, then
+        // sees its stop flag. All of them are waited for against one deadline.
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MS);
+        List<String> stragglers = new ArrayList<>();
+        for (Thread t : threads) {
+            TimeUnit.NANOSECONDS.timedJoin(t, deadline - System.nanoTime());
+            if (t.isAlive()) {
+                stragglers.add(t.getName());
+            }
+        }
+        if (!stragglers.isEmpty()) {
+            System.err.println("Warning: " + stragglers + " did not stop within " + SHUTDOWN_TIMEOUT_MS + "ms");
+        }
+
+        // Cards still in flight arrive before DONE, so every card is accounted for
+        remoteDeck.finish();
+        receiver.join();
+        for (Deck deck : decks) {
+            deck.writeDeckContents(outputDir);
+        }
+        coordinator.close();
+        return winner;
+    }
+
+    /* Returns the decks owned by this node */
+    public List<Deck> getDecks() {
+        return decks;
+    }
+
+    /* Returns the players played by this node */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /*
+     * Asks the coordinator to grant a local player's win. Only one local
+     * player can get here, because the local game-over flag is set first.
+     */
+    private boolean claimWin(int playerId) {
+        try {
+            sendControl(WinCoordinator.CLAIM, playerId);
+            return claimReplies.take();
+        } catch (IOException e) {
+            System.err.println("Error claiming win: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /* Handles messages from the coordinator */
+    private void readControl(Socket coordinator) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()))) {
+            while (true) {
+                byte type = in.readByte();
+                if (type == WinCoordinator.START) {
+                    startSignal.countDown();
+                } else if (type == WinCoordinator.GRANT) {
+                    claimReplies.put(true);
+                } else if (type == WinCoordinator.DENY) {
+                    claimReplies.put(false);
+                } else if (type == WinCoordinator.OVER) {
+                    winner = in.readInt();
+                    gameOver.set(true);
+                    gameEndLatch.countDown();
+                } else {
+                    throw new IOException("Unknown message type " + type);
+                }
+            }
+        } catch (IOException e) {
+            // The connection is closed once the node has finished
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* Writes one message to the coordinator */
+    private void sendControl(byte type, int value) throws IOException {
+        synchronized (control) {
+            control.writeByte(type);
+            if (value != -1) {
+                control.writeInt(value);
+            }
+            control.flush();
+        }
+    }
+
+    /* Connects to a local port, retrying while the other process starts up */
+    private static Socket connect(int port) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+        while (true) {
+            try {
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                socket.setTcpNoDelay(true);
+                return socket;
+            } catch (ConnectException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    /**
+     * Plays a ring split over the given number of local processes. This
+     * process acts as the coordinator and starts one JVM per range of
+     * players. Returns the winner's ID.
+     */
+    public static int launchLocal(int processes, int numberOfPlayers, File packFile, File outputDir)
+            throws IOException, InterruptedException {
+        if (processes < 1 || processes > numberOfPlayers) {
+            throw new IllegalArgumentException("Number of processes must be between 1 and the number of players");
+        }
+        WinCoordinator coordinator = new WinCoordinator(0, processes);
+        coordinator.start();
+
+        // Reserve a free port for each node's card link
+        int[] ports = new int[processes];
+        for (int k = 0; k < processes; k++) {
+            try (ServerSocket probe = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+                ports[k] = probe.getLocalPort();
+            }
+        }
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<Process> nodes = new ArrayList<>();
+        for (int k = 0; k < processes; k++) {
+            int first = k * numberOfPlayers / processes + 1;
+            int last = (k + 1) * numberOfPlayers / processes;
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    "RingNode", String.valueOf(numberOfPlayers), String.valueOf(first), String.valueOf(last),
+                    packFile.getPath(), String.valueOf(ports[k]), String.valueOf(ports[(k + 1) % processes]),
+                    String.valueOf(coordinator.getPort()), outputDir.getPath());
+            builder.inheritIO();
+            nodes.add(builder.start());
+        }
+
+        int winner = coordinator.awaitWinner();
+        for (Process node : nodes) {
+            if (node.waitFor() != 0) {
+                System.err.println("Warning: a ring node exited with status " + node.exitValue());
+            }
+        }
+        coordinator.close();
+        return winner;
+    }
+
+    /**
+     * Usage:
+     * RingNode --local <processes> <players> <pack path>
+     * RingNode <players> <first> <last> <pack path> <port> <next port> <coordinator port> [output dir]
+     */
+    public static void main(String[] args) {
+        try {
+            if (args.length == 4 && args[0].equals("--local")) {
+                int winner = launchLocal(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                        new File(args[3]), new File("."));
+                System.out.println("player " + winner + " wins the distributed game");
+            } else if (args.length == 7 || args.length == 8) {
+                int n = Integer.parseInt(args[0]);
+                List<Integer> pack = CardGame.loadPack(new File(args[3]));
+                RingNode node = new RingNode(n, Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                        pack, Integer.parseInt(args[4]), new File(args.length == 8 ? args[7] : "."));
+                node.play(Integer.parseInt(args[5]), Integer.parseInt(args[6]));
+            } else {
+                System.err.println("Usage: RingNode --local <processes> <players> <pack path>");
+                System.err.println("   or: RingNode <players> <first> <last> <pack path> <port> <next port>"
+                        + " <coordinator port> [output dir]");
+                System.exit(2);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            System.err.println("Error: interrupted");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.List;
+
+/**
+ * ShutdownReport describes how a game's shutdown went: which players did not
+ * stop before the deadline and how long each phase took.
+ */
+public class ShutdownReport {
+    private final List<Integer> stragglers;
+    private final long stopMillis;
+    private final long outputMillis;
+
+    /**
+     * Constructor records the outcome of a shutdown
+     *
+     * @param stragglers   IDs of the players still running at the deadline.
+     * @param stopMillis   Time from the end of the game until the players stopped or the deadline passed.
+     * @param outputMillis Time spent rebalancing and writing the decks.
+     */
+    public ShutdownReport(List<Integer> stragglers, long stopMillis, long outputMillis) {
+        this.stragglers = stragglers;
+        this.stopMillis = stopMillis;
+        this.outputMillis = outputMillis;
+    }
+
+    /* get method to return the IDs of the players that did not stop in time */
+    public List<Integer> getStragglers() {
+        return stragglers;
+    }
+
+    /* Checking whether every player stopped before the deadline */
+    public boolean isClean() {
+        return stragglers.isEmpty();
+    }
+
+    /* get method to return how long the players took to stop */
+    public long getStopMillis() {
+        return stopMillis;
+    }
+
+    /* get method to return how long rebalancing and writing the decks took */
+    public long getOutputMillis() {
+        return outputMillis;
+    }
+
+    /* toString() method to provide a one-line report of the shutdown */
+    @Override
+    public String toString() {
+        return String.format("players stopped in %dms, decks written in %dms, stragglers: %s",
+                stopMillis, outputMillis, stragglers.isEmpty() ? "none" : stragglers);
+    }
+}
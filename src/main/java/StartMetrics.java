@@ -0,0 +1,62 @@
+import java.util.List;
+
+/**
+ * StartMetrics describes how a game's players were started: how long it took
+ * to get every player thread to the start gate, how far apart the players
+ * actually began once the gate opened, and how long each took to finish its
+ * first turn after the gate opened.
+ */
+public class StartMetrics {
+    private final long spawnNanos;
+    private final long skewNanos;
+    private final LatencyHistogram firstTurnLatencies = new LatencyHistogram();
+
+    /**
+     * Constructor derives the metrics from the times recorded by startGame
+     *
+     * @param players      Players of the game, after it has ended.
+     * @param spawnNanos   Time from calling startGame until the gate opened.
+     * @param releaseNanos System.nanoTime() when the gate opened.
+     * @param startNanos   System.nanoTime() when each player's thread passed the gate.
+     */
+    public StartMetrics(List<Player> players, long spawnNanos, long releaseNanos, long[] startNanos) {
+        this.spawnNanos = spawnNanos;
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (long start : startNanos) {
+            first = Math.min(first, start);
+            last = Math.max(last, start);
+        }
+        this.skewNanos = startNanos.length == 0 ? 0 : last - first;
+        // Players that never finished a turn are left out
+        for (Player player : players) {
+            long firstTurn = player.getFirstTurnNanos();
+            if (firstTurn != 0) {
+                firstTurnLatencies.record(firstTurn - releaseNanos);
+            }
+        }
+    }
+
+    /* get method to return the time taken to spawn and prepare every player */
+    public long getSpawnNanos() {
+        return spawnNanos;
+    }
+
+    /* get method to return the time between the first and the last player passing the gate */
+    public long getSkewNanos() {
+        return skewNanos;
+    }
+
+    /* Returns each player's time from the gate opening to the end of its first turn */
+    public LatencyHistogram getFirstTurnLatencies() {
+        return firstTurnLatencies;
+    }
+
+    /* toString() method to provide a one-line report of the start, in microseconds */
+    @Override
+    public String toString() {
+        return String.format("players spawned in %.1fus, start skew %.1fus, first turn (n=%d): p50=%.1f max=%.1fus",
+                spawnNanos / 1000.0, skewNanos / 1000.0, firstTurnLatencies.getCount(),
+                firstTurnLatencies.getPercentileNanos(50) / 1000.0, firstTurnLatencies.getMaxNanos() / 1000.0);
+    }
+}
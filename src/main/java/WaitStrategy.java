@@ -0,0 +1,20 @@
+/**
+ * WaitStrategy decides how a player waits for a card when the deck it draws
+ * from is empty. The neighbouring player usually refills the deck within
+ * microseconds, so spinning briefly can avoid a full park and context switch.
+ */
+public enum WaitStrategy {
+    // Wait on the deck's lock straight away, as the original game did
+    BLOCKING,
+    // Spin briefly, then keep yielding the processor until a card arrives
+    YIELDING,
+    // Spin until a card arrives, never giving up the processor
+    BUSY_SPIN,
+    // Spin briefly, then yield for a while, then wait on the deck's lock
+    SPIN_THEN_PARK;
+
+    // Number of Thread.onSpinWait() calls before yielding
+    static final int SPIN_TRIES = 100;
+    // Number of Thread.yield() calls before parking
+    static final int YIELD_TRIES = 10;
+}
@@ -0,0 +1,141 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WinCoordinator starts a distributed ring and decides its single winner.
+ * Every RingNode connects to it and reports READY; once all nodes are ready
+ * they are told to START together. A player's win must be granted here, and
+ * the first granted win is broadcast to every node as game over.
+ */
+public class WinCoordinator {
+    // Messages sent by nodes
+    static final byte READY = 1;
+    static final byte CLAIM = 2;
+    // Messages sent by the coordinator
+    static final byte START = 10;
+    static final byte GRANT = 11;
+    static final byte DENY = 12;
+    static final byte OVER = 13;
+
+    private final ServerSocket serverSocket;
+    private final int numberOfNodes;
+    private final GameConditions conditions;
+    private final List<DataOutputStream> nodeOutputs = new ArrayList<>();
+
+    /**
+     * Constructor binds the coordinator to the loopback address. Port 0
+     * picks any free port.
+     */
+    public WinCoordinator(int port, int numberOfNodes) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.numberOfNodes = numberOfNodes;
+        // Each node takes part in the start barrier once
+        this.conditions = new GameConditions(numberOfNodes);
+    }
+
+    /* get method to return the port the coordinator is listening on */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /* Accepts the nodes and serves them on background threads */
+    public void start() {
+        Thread acceptor = new Thread(this::acceptNodes, "win-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /* Blocks until a winner is granted and returns its ID */
+    public int awaitWinner() throws InterruptedException {
+        conditions.waitForGameEnd();
+        return conditions.getWinner();
+    }
+
+    /* Stops accepting nodes */
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    /* Accepts one connection per node, then serves each on its own thread */
+    private void acceptNodes() {
+        try {
+            List<Socket> sockets = new ArrayList<>();
+            for (int i = 0; i < numberOfNodes; i++) {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                synchronized (nodeOutputs) {
+                    nodeOutputs.add(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+                }
+            }
+            for (int i = 0; i < sockets.size(); i++) {
+                DataOutputStream out = nodeOutputs.get(i);
+                Socket socket = sockets.get(i);
+                Thread t = new Thread(() -> serveNode(socket, out), "win-coordinator-node");
+                t.setDaemon(true);
+                t.start();
+            }
+        } catch (IOException e) {
+            System.err.println("Error accepting ring nodes: " + e.getMessage());
+        }
+    }
+
+    /* Waits for READY from every node, then answers win claims */
+    private void serveNode(Socket socket, DataOutputStream out) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (true) {
+                byte type = in.readByte();
+                if (type == READY) {
+                    conditions.waitForAllPlayers();
+                    send(out, START, -1);
+                } else if (type == CLAIM) {
+                    int playerId = in.readInt();
+                    if (conditions.declareWinner(playerId)) {
+                        send(out, GRANT, -1);
+                        broadcast(OVER, playerId);
+                    } else {
+                        send(out, DENY, -1);
+                    }
+                } else {
+                    throw new IOException("Unknown message type " + type);
+                }
+            }
+        } catch (IOException e) {
+            // The node has finished and closed its connection
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* Sends a message to every node that is still connected */
+    private void broadcast(byte type, int value) {
+        synchronized (nodeOutputs) {
+            for (DataOutputStream out : nodeOutputs) {
+                try {
+                    send(out, type, value);
+                } catch (IOException e) {
+                    // That node has already finished; the others still need the message
+                }
+            }
+        }
+    }
+
+    /* Writes one message, with an int argument when value is not -1 */
+    private static void send(DataOutputStream out, byte type, int value) throws IOException {
+        synchronized (out) {
+            out.writeByte(type);
+            if (value != -1) {
+                out.writeInt(value);
+            }
+            out.flush();
+        }
+    }
+}
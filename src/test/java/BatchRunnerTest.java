@@ -0,0 +1,84 @@
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/* Test class for verifying the non-interactive batch mode */
+public class BatchRunnerTest {
+
+    /* Writes a two-player pack in which player 1 wins on its first turn */
+    private static File writePack(File dir) throws IOException {
+        File pack = new File(dir, "pack.txt");
+        Files.write(pack.toPath(), Arrays.asList("1", "2", "1", "2", "1", "2", "2", "1",
+                "1", "3", "3", "3", "3", "3", "3", "3"));
+        return pack;
+    }
+
+    // Test that every repetition writes one CSV record
+    @Test
+    public void testCsvRecords() throws IOException {
+        File dir = Files.createTempDirectory("batch").toFile();
+        BatchRunner runner = new BatchRunner(2, Collections.singletonList(writePack(dir)), 3,
+                OutputFormat.CSV, dir, LogLevel.OFF);
+        StringWriter results = new StringWriter();
+
+        assertEquals(3, runner.run(new PrintWriter(results)));
+
+        String[] lines = results.toString().split("\\R");
+        assertEquals(4, lines.length);
+        assertEquals("pack,run,players,winner,turns,wall_ms,setup_ms,shutdown_ms,stragglers,start_skew_ms,first_turn_max_ms", lines[0]);
+        for (int i = 1; i <= 3; i++) {
+            String[] fields = lines[i].split(",");
+            assertEquals(String.valueOf(i), fields[1]);
+            assertEquals("2", fields[2]);
+            assertEquals(lines[i], "0", fields[8]);
+        }
+    }
+
+    // Test that JSON records hold one object per game and unplayable packs are skipped
+    @Test
+    public void testJsonRecords() throws IOException {
+        File dir = Files.createTempDirectory("batch").toFile();
+        File missing = new File(dir, "missing.txt");
+        BatchRunner runner = new BatchRunner(2, Arrays.asList(missing, writePack(dir)), 1,
+                OutputFormat.JSON, dir, LogLevel.OFF);
+        StringWriter results = new StringWriter();
+
+        assertEquals(1, runner.run(new PrintWriter(results)));
+
+        String record = results.toString().trim();
+        assertTrue(record.startsWith("{\"pack\": "));
+        assertTrue(record.contains("\"players\": 2"));
+        assertTrue(record.contains("\"wall_ms\": "));
+        assertTrue(record.endsWith("}"));
+    }
+
+    // Test that a pack with no four of a kind is skipped before it is played
+    @Test
+    public void testUnwinnablePackIsSkipped() throws IOException {
+        File dir = Files.createTempDirectory("batch").toFile();
+        File pack = new File(dir, "triples.txt");
+        Files.write(pack.toPath(), Arrays.asList("1", "1", "1", "2", "2", "2", "3", "3",
+                "3", "4", "4", "4", "5", "5", "5", "6"));
+        BatchRunner runner = new BatchRunner(2, Collections.singletonList(pack), 1,
+                OutputFormat.CSV, dir, LogLevel.OFF);
+        runner.setStallTimeout(0);
+
+        assertEquals(0, runner.run(new PrintWriter(new StringWriter())));
+    }
+
+    // Test that a negative stall timeout is rejected
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStallTimeout() throws IOException {
+        File dir = Files.createTempDirectory("batch").toFile();
+        new BatchRunner(2, Collections.singletonList(writePack(dir)), 1, OutputFormat.CSV, dir, LogLevel.OFF)
+                .setStallTimeout(-1);
+    }
+}
@@ -0,0 +1,24 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/* Test class for verifying the dense encoding of card values */
+public class CardDictionaryTest {
+
+    // Test that distinct values get IDs in ascending order of value
+    @Test
+    public void testEncodeAndDecode() {
+        CardDictionary dictionary = new CardDictionary(Arrays.asList(70000, 3, 3, 12, 70000, 3));
+
+        assertEquals(3, dictionary.size());
+        assertEquals(0, dictionary.encode(3));
+        assertEquals(1, dictionary.encode(12));
+        assertEquals(2, dictionary.encode(70000));
+        assertEquals(-1, dictionary.encode(5));
+        assertEquals(70000, dictionary.decode(2));
+        assertEquals(3, dictionary.getCount(0));
+        assertEquals(2, dictionary.getCount(2));
+    }
+}
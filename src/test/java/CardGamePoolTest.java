@@ -0,0 +1,54 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/* Test class for verifying that pooled games are reused between games */
+public class CardGamePoolTest {
+
+    // After each test, delete the generated output files
+    @After
+    public void cleanup() throws IOException {
+        for (int i = 1; i <= 2; i++) {
+            Files.deleteIfExists(Paths.get("player" + i + "_output.txt"));
+            Files.deleteIfExists(Paths.get("deck" + i + "_output.txt"));
+        }
+    }
+
+    // Test that a released game is handed out again and can be replayed
+    @Test
+    public void testGameIsReused() throws IOException {
+        CardGamePool pool = new CardGamePool();
+        List<Integer> pack = Arrays.asList(1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2);
+
+        // Play a first game and return it to the pool
+        CardGame first = pool.acquire(2, pack);
+        first.startGame();
+        assertNotEquals(-1, first.getWinner());
+        pool.release(first);
+        assertEquals(1, pool.getIdleCount(2));
+
+        // The next game of the same size should reuse the same instance
+        CardGame second = pool.acquire(2, pack);
+        assertSame(first, second);
+        assertEquals(0, pool.getIdleCount(2));
+
+        // The reused game should play to completion with a winner again
+        second.startGame();
+        assertNotEquals(-1, second.getWinner());
+        pool.release(second);
+        pool.close();
+    }
+
+    // Test that a game without players, as a failed game is left, is not pooled
+    @Test(expected = IllegalArgumentException.class)
+    public void testFailedGameIsRejected() {
+        new CardGamePool().release(new CardGame());
+    }
+}
@@ -2,7 +2,10 @@
 // CardGameTest.java
 import static org.junit.Assert.*;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -56,4 +59,142 @@ public class CardGameTest {
         // Attempt to intialize the game with 1 player(invalid)
         game.initializeGame(1);
     }
-}
\ No newline at end of file
+
+    // Test that a deck capacity no larger than the initial deal is rejected
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDeckCapacity() {
+        CardGame game = new CardGame();
+        game.setDeckCapacity(4);
+    }
+
+    // Test that a large ring is built in parallel with shared output files
+    @Test
+    public void testLargeGameSharesLogSegments() throws IOException {
+        int n = 2048;
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < n * 8; i++) {
+            pack.add(i % (n + 1));
+        }
+        File dir = Files.createTempDirectory("large").toFile();
+        CardGame game = new CardGame();
+        game.setOutputDirectory(dir);
+        game.setLogSegmentSize(1024);
+        game.pack = pack;
+        try {
+            game.initializeGame(n);
+
+            // Every deck is dealt its four cards in the same order as a small game
+            List<List<Integer>> decks = game.getDeckContents();
+            assertEquals(n, decks.size());
+            assertEquals(Arrays.asList(n * 4 % (n + 1), (n * 4 + 1) % (n + 1),
+                    (n * 4 + 2) % (n + 1), (n * 4 + 3) % (n + 1)), decks.get(0));
+
+            // Two shared files are written instead of one file per player
+            assertEquals(n, game.getNumberOfPlayers());
+            assertTrue(new File(dir, "players1-1024_output.txt").exists());
+            assertTrue(new File(dir, "players1025-2048_output.txt").exists());
+            assertFalse(new File(dir, "player1_output.txt").exists());
+        } finally {
+            // The players never ran, so closing the game releases their shared files
+            game.close();
+        }
+    }
+
+    // Test that a reset game replaces the shared log file instead of appending to it
+    @Test
+    public void testResetTruncatesLogSegments() throws IOException {
+        File dir = Files.createTempDirectory("segments").toFile();
+        List<Integer> pack = Arrays.asList(1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2);
+        CardGame game = new CardGame();
+        game.setOutputDirectory(dir);
+        game.setLogSegmentSize(2);
+        game.pack = new ArrayList<>(pack);
+        try {
+            // Reset while every player still holds the file open, then play
+            game.initializeGame(2);
+            game.reset(pack);
+            game.startGame();
+        } finally {
+            game.close();
+        }
+
+        // Only the second deal's two initial hands are left in the file
+        List<String> lines = Files.readAllLines(new File(dir, "players1-2_output.txt").toPath());
+        assertEquals(2, lines.stream().filter(line -> line.contains("initial hand")).count());
+    }
+
+    // Test that a finished game records its turns and writes a latency report
+    @Test
+    public void testLatencyReport() throws IOException {
+        File dir = Files.createTempDirectory("latency").toFile();
+        CardGame game = new CardGame();
+        game.setOutputDirectory(dir);
+        game.setLatencyReportFormat(OutputFormat.CSV);
+        // Player 1 holds three 1s and draws the fourth on its first turn
+        game.pack = Arrays.asList(1, 2, 1, 2, 1, 2, 2, 1, 1, 3, 3, 3, 3, 3, 3, 3);
+        game.initializeGame(2);
+        game.startGame();
+
+        LatencyReport report = game.getLatencyReport();
+        assertEquals(game.getTotalTurns(), report.getTurnLatencies().getCount());
+        assertTrue(report.getTurnLatencies().getCount() >= 1);
+        List<String> lines = Files.readAllLines(new File(dir, "latency_report.csv").toPath());
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith("turn,"));
+        game.close();
+    }
+
+    // Test that every player stops promptly and the decks are rebalanced and written
+    @Test
+    public void testShutdownReport() throws IOException {
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            pack.add(i + 10);
+        }
+        File dir = Files.createTempDirectory("shutdown").toFile();
+        CardGame game = new CardGame();
+        game.setOutputDirectory(dir);
+        game.setLogLevel(LogLevel.OFF);
+        // Nobody can win, so the watchdog ends the game while players are mid-turn
+        game.setStallTimeout(200);
+        game.setShutdownTimeout(2000);
+        game.pack = pack;
+        game.initializeGame(3);
+
+        ShutdownReport report = game.startGame();
+
+        assertNotNull(report);
+        assertTrue(report.getStragglers().isEmpty());
+        assertTrue(report.getStopMillis() < 2000);
+        for (int i = 1; i <= 3; i++) {
+            List<String> lines = Files.readAllLines(new File(dir, "deck" + i + "_output.txt").toPath());
+            assertEquals(6, lines.get(0).split(" ").length);
+        }
+        game.close();
+    }
+
+    // Test that every player is started through the gate and its first turn is measured
+    @Test
+    public void testStartMetrics() throws IOException {
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            pack.add(i + 10);
+        }
+        CardGame game = new CardGame();
+        game.setOutputDirectory(Files.createTempDirectory("start").toFile());
+        game.setLogLevel(LogLevel.OFF);
+        game.setStallTimeout(200);
+        game.pack = pack;
+        game.initializeGame(3);
+        assertNull(game.getStartMetrics());
+
+        assertNotNull(game.startGame());
+
+        StartMetrics metrics = game.getStartMetrics();
+        assertTrue(metrics.getSpawnNanos() > 0);
+        assertTrue(metrics.getSkewNanos() >= 0);
+        assertEquals(3, metrics.getFirstTurnLatencies().getCount());
+        assertTrue(metrics.getFirstTurnLatencies().getMaxNanos() > 0);
+        game.close();
+    }
+}
@@ -0,0 +1,70 @@
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/* Test class for verifying decks kept in an off-heap store */
+public class DeckStoreTest {
+
+    // Test that a deck's ring of slots wraps around and stays separate from its neighbours
+    @Test
+    public void testSlotsWrapAround() {
+        DeckStore store = new DeckStore(2, 3);
+        store.add(1, 99);
+        for (int card = 1; card <= 10; card++) {
+            store.add(0, card);
+            if (store.size(0) == 3) {
+                store.remove(0);
+            }
+        }
+        assertEquals(2, store.size(0));
+        assertEquals(9, store.get(0, 0));
+        assertEquals(10, store.get(0, 1));
+        assertEquals(99, store.remove(1));
+        assertEquals(0, store.size(1));
+    }
+
+    // Test that a store-backed deck behaves like an on-heap deck through the Deck API
+    @Test
+    public void testDeckApi() throws IOException, InterruptedException {
+        DeckStore store = new DeckStore(4, 5);
+        Deck deck = new Deck(3, WaitStrategy.BLOCKING, store, 2);
+        deck.addToBottom(7);
+        deck.addToBottom(8);
+        deck.addToBottom(9);
+
+        assertEquals(7, deck.drawFromTop());
+        assertEquals(Arrays.asList(8, 9), deck.getCards());
+        assertEquals(5, deck.getCapacity());
+        assertEquals(3, deck.getHighWaterMark());
+
+        File dir = Files.createTempDirectory("decks").toFile();
+        deck.writeDeckContents(dir);
+        assertEquals("deck3 contents: 8 9", Files.readAllLines(new File(dir, "deck3_output.txt").toPath()).get(0));
+    }
+
+    // Test that a whole game runs with off-heap decks
+    @Test
+    public void testGameWithOffHeapDecks() throws IOException {
+        List<Integer> pack = new ArrayList<>(Arrays.asList(1, 2, 1, 2, 1, 2, 2, 1, 1, 3, 3, 3, 3, 3, 3, 3));
+        CardGame game = new CardGame();
+        game.setOutputDirectory(Files.createTempDirectory("offheap").toFile());
+        game.setLogLevel(LogLevel.OFF);
+        game.setOffHeapDecks(true);
+        game.pack = pack;
+        game.initializeGame(2);
+        game.startGame();
+
+        assertTrue(game.getWinner() != -1);
+        List<List<Integer>> decks = game.getDeckContents();
+        assertEquals(4, decks.get(0).size());
+        assertEquals(4, decks.get(1).size());
+        game.close();
+    }
+}
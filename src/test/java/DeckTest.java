@@ -1,5 +1,7 @@
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 //Test class for verifying the functionality of the Deck class
@@ -30,4 +32,101 @@ public class DeckTest {
         // Verify that the deck contains precisely 2 cards
         assertEquals(2, deck.getCards().size());
     }
-}
\ No newline at end of file
+
+    // Test that a bounded deck holds back a producer until a card is drawn
+    @Test
+    public void testBoundedDeckCapacity() throws InterruptedException {
+        // Create a Deck instance with ID 1 that holds at most 2 cards
+        Deck deck = new Deck(1, 2);
+        deck.addToBottom(1);
+        deck.addToBottom(2);
+        assertTrue(deck.isFull());
+
+        // Adding a third card must wait until a card is drawn
+        Thread producer = new Thread(() -> deck.addToBottom(3));
+        producer.start();
+        producer.join(100);
+        assertTrue("Producer should wait while the deck is full", producer.isAlive());
+
+        assertEquals(1, deck.drawFromTop());
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+
+        // Verify the remaining order and the high-water mark never passed capacity
+        assertEquals(2, deck.drawFromTop());
+        assertEquals(3, deck.drawFromTop());
+        assertEquals(2, deck.getHighWaterMark());
+    }
+
+    // Test that a reset deck is empty and can be reused
+    @Test
+    public void testReset() throws InterruptedException {
+        Deck deck = new Deck(1);
+        deck.addToBottom(1);
+        deck.addToBottom(2);
+
+        // Reset the deck and verify it is empty with a cleared high-water mark
+        deck.reset();
+        assertTrue(deck.getCards().isEmpty());
+        assertEquals(0, deck.getHighWaterMark());
+
+        // The deck still works normally after the reset
+        deck.addToBottom(3);
+        assertEquals(3, deck.drawFromTop());
+    }
+
+    // Test that every wait strategy hands over a card added by another thread
+    @Test
+    public void testWaitStrategies() throws InterruptedException {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            Deck deck = new Deck(1, Deck.UNBOUNDED, strategy);
+
+            // Add a card shortly after the draw starts waiting
+            Thread producer = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                deck.addToBottom(7);
+            });
+            producer.start();
+
+            // Verify the card arrives and the wait is measured
+            assertEquals(7, deck.drawFromTop());
+            producer.join();
+            assertEquals(strategy + " should record one wait", 1, deck.getWaitCount());
+            assertTrue(deck.getMaxWaitNanos() > 0);
+        }
+    }
+
+    // Test that a deck keeps a wait histogram only once latency recording is on
+    @Test
+    public void testWaitHistogramIsOptIn() {
+        Deck deck = new Deck(1);
+        assertNull(deck.getWaitLatencies());
+        deck.setRecordLatencies(true);
+        assertNotNull(deck.getWaitLatencies());
+        assertEquals(0, deck.getWaitLatencies().getCount());
+        deck.setRecordLatencies(false);
+        assertNull(deck.getWaitLatencies());
+    }
+
+    // Test that peeked cards stay on top until removed, and that bulk adds keep their order
+    @Test
+    public void testBatchOperations() {
+        Deck deck = new Deck(1, 6);
+        deck.addAllToBottom(new int[] { 1, 2, 3, 4, 9 }, 4);
+        assertEquals(2, deck.getRemainingCapacity());
+
+        int[] top = new int[3];
+        assertEquals(3, deck.peekTop(top, 3));
+        assertArrayEquals(new int[] { 1, 2, 3 }, top);
+        assertEquals(4, deck.getSize());
+
+        deck.removeFromTop(2);
+        deck.addAllToBottom(new int[] { 5, 6 }, 2);
+        assertEquals(Arrays.asList(3, 4, 5, 6), deck.getCards());
+        assertEquals(4, deck.getHighWaterMark());
+    }
+}
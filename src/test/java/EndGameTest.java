@@ -1,4 +1,8 @@
+import static org.junit.Assert.*;
+
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -37,4 +41,38 @@ public class EndGameTest {
         // validate the final state using the Endgame logic
         EndGame.validateFinalState(pack, decks, players);
     }
-}
\ No newline at end of file
+
+    // Test that the per-ID validation spots a card that has changed value
+    @Test
+    public void testValidateFinalStateWithDictionary() throws IOException, InterruptedException {
+        List<Integer> pack = Arrays.asList(100, 200, 100, 200, 100, 200, 100, 200,
+                300, 300, 300, 300, 300, 300, 300, 300);
+        CardDictionary dictionary = new CardDictionary(pack);
+        File dir = Files.createTempDirectory("endgame").toFile();
+        List<Deck> decks = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Deck deck = new Deck(i + 1);
+            deck.setCardDictionary(dictionary);
+            for (int j = 0; j < 4; j++) {
+                deck.addToBottom(dictionary.encode(300));
+            }
+            decks.add(deck);
+        }
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(i + 1, Arrays.asList(100, 200, 100, 200), decks.get(i),
+                    decks.get((i + 1) % 2), new AtomicBoolean(false), new CountDownLatch(1), dir);
+            player.setCardDictionary(dictionary);
+            players.add(player);
+        }
+
+        assertTrue(EndGame.validateFinalState(dictionary, decks, players));
+        assertEquals(Arrays.asList(100, 200, 100, 200), players.get(0).getHand());
+        assertEquals(Arrays.asList(300, 300, 300, 300), decks.get(0).getCards());
+
+        // Swap a 300 for a second 200 in the first deck
+        decks.get(0).drawFromTop();
+        decks.get(0).addToBottom(dictionary.encode(200));
+        assertFalse(EndGame.validateFinalState(dictionary, decks, players));
+    }
+}
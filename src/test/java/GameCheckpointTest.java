@@ -0,0 +1,106 @@
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/* Test class for verifying checkpoints of running games and resuming from them */
+public class GameCheckpointTest {
+
+    /* A pack for three players in which no value appears four times */
+    private static List<Integer> unwinnablePack() {
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            pack.add(i / 3 + 10);
+        }
+        return pack;
+    }
+
+    /* Plays the unwinnable pack until the watchdog stops it, writing checkpoints */
+    private static File playWithCheckpoints(File dir) throws IOException {
+        File file = new File(dir, "game.ckpt");
+        CardGame game = new CardGame();
+        game.setOutputDirectory(dir);
+        game.setLogLevel(LogLevel.OFF);
+        game.setStallTimeout(400);
+        game.setCheckpoint(file, 50);
+        game.pack = unwinnablePack();
+        game.initializeGame(3);
+        game.startGame();
+        game.close();
+        return file;
+    }
+
+    // Test that a checkpoint of a running game holds every card of the pack exactly once
+    @Test
+    public void testCheckpointConservesCards() throws IOException {
+        File file = playWithCheckpoints(Files.createTempDirectory("checkpoint").toFile());
+
+        GameCheckpoint checkpoint = GameCheckpoint.read(file);
+        assertEquals(3, checkpoint.getNumberOfPlayers());
+        List<Integer> cards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(4, checkpoint.getHand(i).length);
+            for (int card : checkpoint.getHand(i)) {
+                cards.add(card);
+            }
+            for (int card : checkpoint.getDeck(i)) {
+                cards.add(card);
+            }
+        }
+        List<Integer> pack = unwinnablePack();
+        Collections.sort(cards);
+        Collections.sort(pack);
+        assertEquals(pack, cards);
+    }
+
+    // Test that a game resumed from a checkpoint has its decks, hands and turn counts
+    @Test
+    public void testResume() throws IOException {
+        File dir = Files.createTempDirectory("resume").toFile();
+        File file = playWithCheckpoints(dir);
+        GameCheckpoint checkpoint = GameCheckpoint.read(file);
+
+        CardGame game = new CardGame();
+        game.setOutputDirectory(dir);
+        game.setLogLevel(LogLevel.OFF);
+        game.setStallTimeout(200);
+        game.pack = unwinnablePack();
+        game.resume(file);
+
+        long turns = 0;
+        for (int i = 0; i < 3; i++) {
+            int[] deck = checkpoint.getDeck(i);
+            List<Integer> expected = new ArrayList<>();
+            for (int card : deck) {
+                expected.add(card);
+            }
+            assertEquals(expected, game.getDeckContents().get(i));
+            turns += checkpoint.getTurnCount(i);
+        }
+        assertEquals(turns, game.getTotalTurns());
+        assertTrue(turns > 0);
+
+        game.startGame();
+        assertTrue(game.getTotalTurns() >= turns);
+        game.close();
+    }
+
+    // Test that a checkpoint is rejected for a pack with different cards
+    @Test(expected = IllegalArgumentException.class)
+    public void testResumeRejectsOtherPack() throws IOException {
+        File file = playWithCheckpoints(Files.createTempDirectory("checkpoint").toFile());
+        List<Integer> pack = unwinnablePack();
+        pack.set(0, 99);
+
+        CardGame game = new CardGame();
+        game.setOutputDirectory(file.getParentFile());
+        game.pack = pack;
+        game.resume(file);
+    }
+}
@@ -0,0 +1,151 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/* Test class for verifying the published stream of game events */
+public class GameEventPublisherTest {
+
+    /* Subscriber that requests a fixed number of events and records them */
+    private static class Recorder implements Flow.Subscriber<GameEvent> {
+        final List<GameEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final long demand;
+
+        Recorder(long demand) {
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (demand > 0) {
+                subscription.request(demand);
+            }
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    /* Plays a game in which player 1 draws its fourth 1 on its first turn */
+    private static void playGame(GameEventPublisher publisher) throws IOException {
+        CardGame game = new CardGame();
+        game.setOutputDirectory(Files.createTempDirectory("events").toFile());
+        game.setLogLevel(LogLevel.OFF);
+        game.setEventPublisher(publisher);
+        game.pack = new ArrayList<>(Arrays.asList(1, 2, 1, 2, 1, 2, 2, 1, 1, 3, 3, 3, 3, 3, 3, 3));
+        game.initializeGame(2);
+        game.startGame();
+        game.close();
+    }
+
+    // Test that every subscriber receives the moves of the game in order
+    @Test
+    public void testSubscribersReceiveEvents() throws Exception {
+        GameEventPublisher publisher = new GameEventPublisher(GameEventPublisher.OverflowPolicy.BUFFER, 1024);
+        Recorder first = new Recorder(Long.MAX_VALUE);
+        Recorder second = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        playGame(publisher);
+        publisher.close();
+        assertTrue(first.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(second.completed.await(5, TimeUnit.SECONDS));
+
+        List<GameEvent.Type> playerOne = new ArrayList<>();
+        int exits = 0;
+        for (GameEvent event : first.events) {
+            if (event.getPlayerId() == 1) {
+                playerOne.add(event.getType());
+            }
+            if (event.getType() == GameEvent.Type.EXIT) {
+                exits++;
+            }
+        }
+        assertEquals(Arrays.asList(GameEvent.Type.DRAW, GameEvent.Type.DISCARD,
+                GameEvent.Type.WIN, GameEvent.Type.EXIT), playerOne.subList(playerOne.size() - 4, playerOne.size()));
+        assertEquals(2, exits);
+        assertEquals(first.events.size(), second.events.size());
+        assertEquals(0, publisher.getDroppedCount());
+    }
+
+    // Test that a subscriber that requests nothing never holds up the game
+    @Test
+    public void testDropPolicyDoesNotBlock() throws Exception {
+        GameEventPublisher publisher = new GameEventPublisher();
+        Recorder idle = new Recorder(0);
+        publisher.subscribe(idle);
+
+        playGame(publisher);
+        publisher.close();
+
+        assertTrue(idle.events.isEmpty());
+        assertTrue(publisher.getDroppedCount() > 0);
+    }
+
+    // Test that a publisher blocked by a full subscriber gives up once asked to
+    @Test
+    public void testBlockPolicyGivesUp() throws Exception {
+        GameEventPublisher publisher = new GameEventPublisher(GameEventPublisher.OverflowPolicy.BLOCK, 1);
+        publisher.subscribe(new Recorder(0));
+        AtomicBoolean giveUp = new AtomicBoolean(false);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread player = new Thread(() -> {
+            for (int i = 0; i < 4; i++) {
+                publisher.publish(new GameEvent(GameEvent.Type.DRAW, 1, i, 1), giveUp::get);
+            }
+            done.countDown();
+        });
+        player.start();
+        assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+
+        giveUp.set(true);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(publisher.getDroppedCount() > 0);
+        publisher.close();
+    }
+
+    // Test that an interrupt frees a publisher blocked by a full subscriber
+    @Test
+    public void testBlockPolicyHonoursInterrupt() throws Exception {
+        GameEventPublisher publisher = new GameEventPublisher(GameEventPublisher.OverflowPolicy.BLOCK, 1);
+        publisher.subscribe(new Recorder(0));
+        Thread player = new Thread(() -> {
+            for (int i = 0; i < 4; i++) {
+                publisher.publish(new GameEvent(GameEvent.Type.DRAW, 1, i, 1));
+            }
+        });
+        player.start();
+        Thread.sleep(100);
+
+        player.interrupt();
+        player.join(5000);
+
+        assertFalse(player.isAlive());
+        publisher.close();
+    }
+}
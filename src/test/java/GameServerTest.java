@@ -0,0 +1,60 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/* Test class for verifying the game server and its localhost client */
+public class GameServerTest {
+    private GameServer server;
+
+    // Start a server on a free port before each test
+    @Before
+    public void setup() throws IOException {
+        server = new GameServer(0, Files.createTempDirectory("games").toFile());
+        server.start();
+    }
+
+    // Stop the server after each test
+    @After
+    public void cleanup() throws IOException {
+        server.close();
+    }
+
+    // Test that a game submitted with an inline pack returns its result
+    @Test
+    public void testPlayInlinePack() throws IOException {
+        List<String> reply = GameClient.submit(server.getPort(),
+                "PLAY 2 CARDS 1 2 1 2 1 2 1 2 1 2 1 2 1 2 1 2");
+
+        // Verify the winner line and one contents line per deck
+        assertEquals(3, reply.size());
+        assertTrue(reply.get(0).startsWith("OK winner "));
+        assertTrue(reply.get(1).startsWith("deck1 contents:"));
+        assertTrue(reply.get(2).startsWith("deck2 contents:"));
+    }
+
+    // Test that an invalid pack is reported as an error
+    @Test
+    public void testInvalidPack() throws IOException {
+        List<String> reply = GameClient.submit(server.getPort(), "PLAY 2 CARDS 1 2 3");
+
+        assertEquals(1, reply.size());
+        assertTrue(reply.get(0).startsWith("ERROR"));
+    }
+
+    // Test that a job whose game can never end is stopped and answered with an error
+    @Test
+    public void testStalledJobIsStopped() {
+        server.setStallTimeout(300);
+        // The four 9s sit four cards apart in the ring, so no hand ever holds two of them
+        List<String> reply = server.runJob("PLAY 2 CARDS 9 9 20 21 22 23 24 25 9 26 27 28 9 29 30 31");
+
+        assertEquals(1, reply.size());
+        assertTrue(reply.get(0), reply.get(0).startsWith("ERROR Game stopped after 300ms"));
+    }
+}
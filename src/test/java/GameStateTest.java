@@ -0,0 +1,74 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/* Test class for verifying the persistent game state */
+public class GameStateTest {
+
+    // Test that a turn follows the headless rules and leaves the old state unchanged
+    @Test
+    public void testStepForksState() {
+        List<Integer> pack = Arrays.asList(1, 5, 2, 6, 3, 7, 4, 8,
+                9, 9, 9, 9, 8, 8, 8, 8);
+        GameState start = GameState.deal(pack, 2);
+
+        GameState next = start.step(0);
+
+        assertArrayEquals(new int[] { 1, 3, 4, 9 }, next.getHand(0));
+        assertArrayEquals(new int[] { 9, 9, 9 }, next.getDeck(0));
+        assertArrayEquals(new int[] { 8, 8, 8, 8, 2 }, next.getDeck(1));
+        assertEquals(1, next.getTurns());
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, start.getHand(0));
+        assertArrayEquals(new int[] { 9, 9, 9, 9 }, start.getDeck(0));
+        assertEquals(0, start.getTurns());
+    }
+
+    // Test that the same moves give the same position as the headless engine
+    @Test
+    public void testMatchesHeadlessGame() {
+        int n = 40;
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < n * 8; i++) {
+            pack.add(i % (n * 2));
+        }
+        HeadlessGame game = new HeadlessGame(pack, n);
+        GameState state = GameState.deal(pack, n);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int turn = 0; turn < 2000; turn++) {
+            int player = random.nextInt(n);
+            game.step(player);
+            state = state.step(player);
+        }
+
+        assertEquals(game.getTurns(), state.getTurns());
+        assertEquals(game.getWinner(), state.getWinner());
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(game.getHand(i), state.getHand(i));
+            assertArrayEquals(game.getDeck(i), state.getDeck(i));
+        }
+        // A snapshot of the headless game is the same position
+        assertArrayEquals(game.getDeck(n - 1), game.snapshot().getDeck(n - 1));
+    }
+
+    // Test that parallel branches from one position are independent and repeatable
+    @Test
+    public void testPlayBranches() {
+        List<Integer> pack = Arrays.asList(1, 5, 2, 6, 3, 7, 4, 8,
+                9, 9, 9, 9, 8, 8, 8, 8);
+        GameState start = GameState.deal(pack, 2).step(0);
+
+        GameState[] branches = start.playBranches(100, 10000, 1);
+        GameState[] again = start.playBranches(100, 10000, 1);
+
+        for (int b = 0; b < branches.length; b++) {
+            assertTrue(branches[b].getWinner() == 1 || branches[b].getWinner() == 2);
+            assertEquals(branches[b].getTurns(), again[b].getTurns());
+        }
+        assertEquals(1, start.getTurns());
+    }
+}
@@ -0,0 +1,124 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/* Test class for verifying that the watchdog stops stalled games */
+public class GameWatchdogTest {
+
+    // Test that the watchdog fires when no player takes a turn
+    @Test
+    public void testStalledPlayersAreStopped() throws IOException, InterruptedException {
+        Deck leftDeck = new Deck(1);
+        Deck rightDeck = new Deck(2);
+        AtomicBoolean gameOver = new AtomicBoolean(false);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Player> players = new ArrayList<>();
+        players.add(new Player(1, Arrays.asList(1, 2, 3, 4), leftDeck, rightDeck, gameOver, latch,
+                Files.createTempDirectory("watchdog").toFile(), LogLevel.OFF));
+
+        GameWatchdog watchdog = new GameWatchdog(players, 100, () -> {
+            gameOver.set(true);
+            latch.countDown();
+        });
+        watchdog.start();
+
+        // The stop action should end the game through the latch
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(gameOver.get());
+        assertTrue(watchdog.hasFired());
+        assertTrue(watchdog.getReport().contains("no player has taken a turn"));
+        watchdog.stop();
+    }
+
+    // Test that a game that can never be won ends without a winner
+    @Test
+    public void testUnwinnableGameIsStopped() throws IOException {
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            pack.add(i + 10);
+        }
+        CardGame game = new CardGame();
+        game.setOutputDirectory(Files.createTempDirectory("watchdog").toFile());
+        game.setLogLevel(LogLevel.OFF);
+        game.setStallTimeout(300);
+        game.pack = pack;
+        game.initializeGame(2);
+
+        game.startGame();
+
+        assertEquals(-1, game.getWinner());
+        assertNotNull(game.getWatchdogReport());
+    }
+
+    /* Creates a player that never runs, whose hand and turns the tests set directly */
+    private static Player idlePlayer() throws IOException {
+        return new Player(1, Arrays.asList(1, 1, 2, 3), new Deck(1), new Deck(2), new AtomicBoolean(false),
+                new CountDownLatch(1), Files.createTempDirectory("watchdog").toFile(), LogLevel.OFF);
+    }
+
+    // Test that a score reaching a new high counts as progress
+    @Test
+    public void testNewHighScoreIsProgress() throws IOException, InterruptedException {
+        Player player = idlePlayer();
+        GameWatchdog watchdog = new GameWatchdog(Arrays.asList(player), 100, () -> { });
+        watchdog.check();
+
+        Thread.sleep(60);
+        player.reset(Arrays.asList(1, 1, 1, 2), new CountDownLatch(1));
+        player.setTurnCount(1);
+        watchdog.check();
+
+        Thread.sleep(60);
+        player.reset(Arrays.asList(1, 1, 1, 1), new CountDownLatch(1));
+        player.setTurnCount(2);
+        watchdog.check();
+
+        assertFalse(watchdog.hasFired());
+    }
+
+    // Test that a ring whose score rises and falls forever is stopped as a livelock
+    @Test
+    public void testOscillatingScoreIsStopped() throws IOException, InterruptedException {
+        Player player = idlePlayer();
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        GameWatchdog watchdog = new GameWatchdog(Arrays.asList(player), 100, () -> stopped.set(true));
+        watchdog.check();
+
+        // Turns keep coming, but the hand only swaps between a pair and no pair
+        for (int turn = 1; turn <= 20 && !stopped.get(); turn++) {
+            Thread.sleep(20);
+            player.reset(turn % 2 == 1 ? Arrays.asList(1, 2, 3, 4) : Arrays.asList(1, 1, 2, 3),
+                    new CountDownLatch(1));
+            player.setTurnCount(turn);
+            watchdog.check();
+        }
+
+        assertTrue(stopped.get());
+        assertTrue(watchdog.getReport().contains("no hand gets closer"));
+    }
+
+    // Test that a game whose pack holds no four of a kind is stopped even while turns continue
+    @Test
+    public void testUnwinnablePackIsStopped() throws IOException, InterruptedException {
+        Player player = idlePlayer();
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        GameWatchdog watchdog = new GameWatchdog(Arrays.asList(player), 50, () -> stopped.set(true), false);
+        watchdog.check();
+
+        Thread.sleep(60);
+        player.setTurnCount(1);
+        watchdog.check();
+
+        assertTrue(stopped.get());
+        assertTrue(watchdog.getReport().contains("no four of a kind"));
+    }
+}
@@ -0,0 +1,43 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/* Test class for verifying the single-threaded rules engine */
+public class HeadlessGameTest {
+
+    // Test that a turn draws from the left deck and discards to the right deck
+    @Test
+    public void testStep() {
+        // Player 1 is dealt 1 2 3 4, player 2 is dealt 5 6 7 8
+        List<Integer> pack = Arrays.asList(1, 5, 2, 6, 3, 7, 4, 8,
+                9, 9, 9, 9, 8, 8, 8, 8);
+        HeadlessGame game = new HeadlessGame(pack, 2);
+
+        assertTrue(game.step(0));
+
+        // Player 1 drew a 9 and discarded its first non-preferred card, the 2
+        assertArrayEquals(new int[] { 1, 3, 4, 9 }, game.getHand(0));
+        assertArrayEquals(new int[] { 9, 9, 9 }, game.getDeck(0));
+        assertArrayEquals(new int[] { 8, 8, 8, 8, 2 }, game.getDeck(1));
+        assertEquals(1, game.getTurns());
+    }
+
+    // Test that random play reaches a win and keeps every card
+    @Test
+    public void testPlayToWin() {
+        List<Integer> pack = Arrays.asList(1, 5, 2, 6, 3, 7, 4, 8,
+                9, 9, 9, 9, 8, 8, 8, 8);
+        HeadlessGame game = new HeadlessGame(pack, 2);
+
+        int winner = game.play(new SplittableRandom(1), 10000);
+
+        assertTrue(winner == 1 || winner == 2);
+        int cards = game.getHand(0).length + game.getHand(1).length
+                + game.getDeck(0).length + game.getDeck(1).length;
+        assertEquals(16, cards);
+    }
+}
@@ -0,0 +1,61 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/* Test class for verifying the latency histogram's buckets and percentiles */
+public class LatencyHistogramTest {
+
+    // Test that every value falls into a bucket whose bounds contain it
+    @Test
+    public void testBucketBounds() {
+        long[] values = { 0, 1, 15, 16, 17, 31, 32, 1000, 123456, 987654321L, 1L << 40 };
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(bucket));
+            if (bucket > 0) {
+                assertTrue(value > LatencyHistogram.upperBoundOf(bucket - 1));
+            }
+            // Each bucket is within about 6% of its values
+            assertTrue(LatencyHistogram.upperBoundOf(bucket) <= value + value / 8 + 1);
+        }
+    }
+
+    // Test percentiles, the maximum and merging two histograms
+    @Test
+    public void testPercentilesAndMerge() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int i = 1; i <= 900; i++) {
+            first.record(1000);
+        }
+        for (int i = 1; i <= 100; i++) {
+            second.record(1000000);
+        }
+        first.add(second);
+
+        assertEquals(1000, first.getCount());
+        assertEquals(1000000, first.getMaxNanos());
+        long p50 = first.getPercentileNanos(50);
+        assertTrue(p50 >= 1000 && p50 < 1100);
+        assertEquals(1000000, first.getPercentileNanos(99));
+
+        first.reset();
+        assertEquals(0, first.getCount());
+        assertEquals(0, first.getPercentileNanos(99.9));
+    }
+
+    // Test that values beyond the last regular bucket are kept apart from it
+    @Test
+    public void testOverflowBucket() {
+        int last = LatencyHistogram.bucketOf((1L << 41) - 1);
+        assertEquals((1L << 41) - 1, LatencyHistogram.upperBoundOf(last));
+        assertEquals(last + 1, LatencyHistogram.bucketOf(1L << 41));
+        assertEquals(last + 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record((1L << 41) - 1);
+        histogram.record(1L << 50);
+        assertEquals((1L << 41) - 1, histogram.getPercentileNanos(50));
+        assertEquals(1L << 50, histogram.getPercentileNanos(100));
+    }
+}
@@ -0,0 +1,60 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/* Test class for verifying the pack winnability analysis */
+public class PackAnalyzerTest {
+
+    // Test that a pack without four cards of any value is rejected
+    @Test
+    public void testUnwinnablePack() {
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            pack.add(i);
+        }
+
+        PackAnalysis analysis = PackAnalyzer.analyze(pack, 2);
+
+        assertEquals(PackAnalysis.Winnability.UNWINNABLE, analysis.getWinnability());
+        assertEquals(0, analysis.getTrials());
+    }
+
+    // Test that a pack which deals a winning hand is reported as winnable
+    @Test
+    public void testWinnablePack() {
+        List<Integer> pack = Arrays.asList(1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2);
+
+        PackAnalysis analysis = PackAnalyzer.analyze(pack, 2);
+
+        // Every simulated game is won before the first turn
+        assertEquals(PackAnalysis.Winnability.WINNABLE, analysis.getWinnability());
+        assertEquals(analysis.getTrials(), analysis.getWins());
+        assertEquals(0.0, analysis.getMeanTurnsToWin(), 0.0);
+    }
+
+    // Test that a large ring is analyzed within the given turn budget
+    @Test
+    public void testTurnBudgetBoundsLargeRings() {
+        int n = 4096;
+        List<Integer> pack = new ArrayList<>();
+        for (int i = 0; i < n * 8; i++) {
+            pack.add(i % (n * 2));
+        }
+
+        // 32 trials of at most 100 turns each, however many players the ring has
+        PackAnalysis analysis = PackAnalyzer.analyze(pack, n, 3200);
+
+        assertEquals(PackAnalyzer.DEFAULT_TRIALS, analysis.getTrials());
+        assertNotEquals(PackAnalysis.Winnability.UNWINNABLE, analysis.getWinnability());
+    }
+
+    // Test that an analysis needs a positive turn budget
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTurnBudget() {
+        PackAnalyzer.analyze(Arrays.asList(1, 1, 1, 1, 2, 2, 2, 2), 1, 0);
+    }
+}
@@ -0,0 +1,68 @@
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/* Test class for verifying the on-disk pack cache */
+public class PackCacheTest {
+
+    /* Writes a two-player pack in which player 1 wins on its first turn */
+    private static File writePack(File dir) throws IOException {
+        File pack = new File(dir, "pack.txt");
+        Files.write(pack.toPath(), Arrays.asList("1", "2", "1", "2", "1", "2", "2", "1",
+                "1", "3", "3", "3", "3", "3", "3", "3"));
+        return pack;
+    }
+
+    // Test that a second load comes from the cache with the same cards and analysis
+    @Test
+    public void testHit() throws IOException {
+        File dir = Files.createTempDirectory("packcache").toFile();
+        File packFile = writePack(dir);
+        PackCache cache = new PackCache(new File(dir, "cache"));
+
+        CachedPack first = cache.load(packFile, 2);
+        File[] entries = cache.getDirectory().listFiles();
+        assertEquals(1, entries.length);
+        assertEquals(PackCache.hash(packFile) + ".pack", entries[0].getName());
+
+        CachedPack second = cache.load(packFile, 2);
+        assertEquals(first.getCards(), second.getCards());
+        assertEquals(PackAnalysis.Winnability.WINNABLE, second.getAnalysis().getWinnability());
+        assertEquals(first.getAnalysis().getWins(), second.getAnalysis().getWins());
+        assertEquals(3, second.getDictionary().size());
+        assertEquals(7, second.getDictionary().getCount(second.getDictionary().encode(3)));
+    }
+
+    // Test that editing the pack file makes the cache load the new content
+    @Test
+    public void testChangedFileMisses() throws IOException {
+        File dir = Files.createTempDirectory("packcache").toFile();
+        File packFile = writePack(dir);
+        PackCache cache = new PackCache(new File(dir, "cache"));
+        cache.load(packFile, 2);
+
+        Files.write(packFile.toPath(), Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8",
+                "9", "10", "11", "12", "13", "14", "15", "16"));
+        CachedPack changed = cache.load(packFile, 2);
+
+        assertEquals(16, (int) changed.getCards().get(15));
+        assertEquals(PackAnalysis.Winnability.UNWINNABLE, changed.getAnalysis().getWinnability());
+    }
+
+    // Test that a pack that does not fit the player count has no analysis
+    @Test
+    public void testWrongPlayerCount() throws IOException {
+        File dir = Files.createTempDirectory("packcache").toFile();
+        PackCache cache = new PackCache(new File(dir, "cache"));
+
+        CachedPack pack = cache.load(writePack(dir), 3);
+
+        assertEquals(16, pack.size());
+        assertNull(pack.getAnalysis());
+    }
+}
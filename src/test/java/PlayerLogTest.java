@@ -0,0 +1,73 @@
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/* Test class for verifying the log levels of PlayerLog */
+public class PlayerLogTest {
+
+    // Test that a full log writes every line in the original format
+    @Test
+    public void testFullLog() throws IOException {
+        File file = Files.createTempFile("player1", ".txt").toFile();
+        PlayerLog log = new PlayerLog(1, file, LogLevel.FULL);
+        List<Integer> hand = Arrays.asList(1, 2, 3, 4);
+
+        log.initialHand(hand);
+        log.draws(5, 1);
+        log.discards(2, 2);
+        log.currentHand(hand);
+        log.exits(hand);
+        log.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(Arrays.asList(
+                "player 1 initial hand 1 2 3 4",
+                "player 1 draws a 5 from deck 1",
+                "player 1 discards a 2 to deck 2",
+                "player 1 current hand is 1 2 3 4",
+                "player 1 exits",
+                "player 1 final hand: 1 2 3 4"), lines);
+    }
+
+    // Test that a summary log skips the per-turn lines
+    @Test
+    public void testSummaryLog() throws IOException {
+        File file = Files.createTempFile("player1", ".txt").toFile();
+        PlayerLog log = new PlayerLog(1, file, LogLevel.SUMMARY);
+        List<Integer> hand = Arrays.asList(1, 1, 1, 1);
+
+        log.initialHand(hand);
+        log.draws(5, 1);
+        log.discards(5, 2);
+        log.wins();
+        log.exits(hand);
+        log.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(Arrays.asList(
+                "player 1 initial hand 1 1 1 1",
+                "player 1 wins",
+                "player 1 exits",
+                "player 1 final hand: 1 1 1 1"), lines);
+    }
+
+    // Test that no output file is created when logging is off
+    @Test
+    public void testLoggingOff() throws IOException {
+        File file = new File(Files.createTempDirectory("players").toFile(), "player1_output.txt");
+        PlayerLog log = new PlayerLog(1, file, LogLevel.OFF);
+
+        log.initialHand(Arrays.asList(1, 2, 3, 4));
+        log.draws(5, 1);
+        log.close();
+
+        assertFalse(log.isEnabled(LogLevel.SUMMARY));
+        assertFalse(file.exists());
+    }
+}
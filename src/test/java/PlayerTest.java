@@ -1,5 +1,6 @@
 import static org.junit.Assert.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -7,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.After;
@@ -90,4 +92,58 @@ public class PlayerTest {
         // Verify that the Player does not identify the hand as a winning hand.
         assertFalse(player.checkWinningHand());
     }
-}
\ No newline at end of file
+
+    // Test that a running player stops on its own stop flag, without the shared flag being set
+    @Test
+    public void testRequestStop() throws IOException, InterruptedException {
+        // A one-player ring draws from and discards to the same deck, so it never runs out
+        Deck deck = new Deck(1);
+        for (int card : Arrays.asList(5, 6, 7, 8)) {
+            deck.addToBottom(card);
+        }
+        AtomicBoolean gameOver = new AtomicBoolean(false);
+        CountDownLatch latch = new CountDownLatch(1);
+        Player player = new Player(1, Arrays.asList(1, 2, 3, 4), deck, deck, gameOver, latch);
+        Thread thread = new Thread(player);
+        thread.start();
+        Thread.sleep(50);
+
+        player.requestStop();
+        thread.join(2000);
+
+        assertFalse(thread.isAlive());
+        assertFalse(gameOver.get());
+        assertTrue(player.getTurnCount() > 0);
+    }
+
+    /* Plays a one-player ring until player 1 wins and returns its log and final deck */
+    private static List<String> playAlone(int turnBatchSize) throws IOException, InterruptedException {
+        Deck deck = new Deck(1);
+        for (int card : Arrays.asList(5, 1, 6, 1, 7, 1, 8, 9)) {
+            deck.addToBottom(card);
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        File dir = Files.createTempDirectory("batch").toFile();
+        Player player = new Player(1, Arrays.asList(1, 2, 3, 4), deck, deck, new AtomicBoolean(false),
+                latch, dir);
+        player.setTurnBatchSize(turnBatchSize);
+        Thread thread = new Thread(player);
+        thread.start();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        thread.join(2000);
+
+        assertEquals(6, player.getTurnCount());
+        List<String> result = new ArrayList<>(Files.readAllLines(dir.toPath().resolve("player1_output.txt")));
+        result.add(deck.getCards().toString());
+        return result;
+    }
+
+    // Test that batched turns make the same moves and log as single turns, leaving unplayed cards on top
+    @Test
+    public void testBatchedTurnsMatchSingleTurns() throws IOException, InterruptedException {
+        List<String> single = playAlone(1);
+
+        assertEquals(single, playAlone(4));
+        assertEquals("[8, 9, 2, 3, 4, 5, 6, 7]", single.get(single.size() - 1));
+    }
+}
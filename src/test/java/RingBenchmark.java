@@ -0,0 +1,66 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RingBenchmark measures turn throughput and latency for rings of 2 to 64
+ * players. Each ring is dealt a pack in which nobody can win, so the game
+ * runs until the watchdog stops it after the given number of milliseconds.
+ * The first round of every size is a warm-up and is not reported.
+ *
+ * The number of cores the JVM may use is printed with the results, since
+ * false sharing only costs anything once players run on different cores:
+ * run it under taskset or on machines with 2 to 64 cores to compare layouts.
+ *
+ * Usage: RingBenchmark [millis per game] [rounds]
+ */
+public class RingBenchmark {
+    private static final int[] PLAYER_COUNTS = { 2, 4, 8, 16, 32, 64 };
+
+    public static void main(String[] args) throws IOException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        File dir = Files.createTempDirectory("ring-benchmark").toFile();
+
+        System.out.println("cores available: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("players,round,turns,turns_per_s,turn_p50_us,turn_p99_us,wait_p99_us,start_skew_us");
+        for (int n : PLAYER_COUNTS) {
+            for (int round = 0; round <= rounds; round++) {
+                CardGame game = new CardGame();
+                game.setOutputDirectory(dir);
+                game.setLogLevel(LogLevel.OFF);
+                game.setStallTimeout(millis);
+                game.setRecordLatencies(true);
+                game.pack = unwinnablePack(n);
+                game.initializeGame(n);
+
+                long start = System.nanoTime();
+                game.startGame();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                game.close();
+                if (round == 0) {
+                    continue;
+                }
+
+                LatencyReport report = game.getLatencyReport();
+                System.out.printf("%d,%d,%d,%.0f,%.1f,%.1f,%.1f,%.1f%n", n, round, game.getTotalTurns(),
+                        game.getTotalTurns() / seconds,
+                        report.getTurnLatencies().getPercentileNanos(50) / 1000.0,
+                        report.getTurnLatencies().getPercentileNanos(99) / 1000.0,
+                        report.getWaitLatencies().getPercentileNanos(99) / 1000.0,
+                        game.getStartMetrics().getSkewNanos() / 1000.0);
+            }
+        }
+    }
+
+    /* Returns a pack of 8n distinct cards, which can never produce a winner */
+    private static List<Integer> unwinnablePack(int n) {
+        List<Integer> pack = new ArrayList<>(n * 8);
+        for (int i = 0; i < n * 8; i++) {
+            pack.add(i + 1);
+        }
+        return pack;
+    }
+}
@@ -0,0 +1,95 @@
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/* Test class for verifying a ring split over several nodes */
+public class RingNodeTest {
+
+    // Build a 4 player pack where every player is dealt a winning hand
+    private static List<Integer> allWinningPack() {
+        List<Integer> pack = new ArrayList<>();
+        for (int j = 0; j < 4; j++) {
+            for (int player = 1; player <= 4; player++) {
+                pack.add(player);
+            }
+        }
+        for (int i = 0; i < 16; i++) {
+            pack.add(5 + i % 4);
+        }
+        return pack;
+    }
+
+    // Count the cards in all deck output files of a directory
+    private static int countDeckCards(File dir, int decks) throws IOException {
+        int cards = 0;
+        for (int i = 1; i <= decks; i++) {
+            String line = Files.readString(new File(dir, "deck" + i + "_output.txt").toPath());
+            String contents = line.substring(line.indexOf(':') + 1).trim();
+            cards += contents.isEmpty() ? 0 : contents.split(" ").length;
+        }
+        return cards;
+    }
+
+    // Test that two nodes in one JVM agree on exactly one winner
+    @Test
+    public void testTwoNodesAgreeOnOneWinner() throws Exception {
+        List<Integer> pack = allWinningPack();
+        File dir = Files.createTempDirectory("ring").toFile();
+        WinCoordinator coordinator = new WinCoordinator(0, 2);
+        coordinator.start();
+
+        RingNode first = new RingNode(4, 1, 2, pack, 0, dir);
+        RingNode second = new RingNode(4, 3, 4, pack, 0, dir);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Integer> firstWinner = executor.submit(() -> first.play(second.getPort(), coordinator.getPort()));
+        Future<Integer> secondWinner = executor.submit(() -> second.play(first.getPort(), coordinator.getPort()));
+
+        // Both nodes report the coordinator's winner
+        int winner = coordinator.awaitWinner();
+        assertEquals(winner, (int) firstWinner.get());
+        assertEquals(winner, (int) secondWinner.get());
+        executor.shutdown();
+        coordinator.close();
+
+        // Every player dealt a winning hand claimed, but only one was granted
+        int winners = 0;
+        for (RingNode node : new RingNode[] { first, second }) {
+            for (Player player : node.getPlayers()) {
+                if (player.hasWon()) {
+                    winners++;
+                    assertEquals(winner, Integer.parseInt(player.getPlayerId()));
+                }
+            }
+        }
+        assertEquals(1, winners);
+
+        // No card was lost on the links between the nodes
+        assertEquals(16, countDeckCards(dir, 4));
+    }
+
+    // Test a ring spread over two separate JVMs on localhost
+    @Test
+    public void testLocalProcesses() throws Exception {
+        File dir = Files.createTempDirectory("ring").toFile();
+        File packFile = new File(dir, "pack.txt");
+        List<String> lines = new ArrayList<>();
+        for (int card : allWinningPack()) {
+            lines.add(String.valueOf(card));
+        }
+        Files.write(packFile.toPath(), lines);
+
+        int winner = RingNode.launchLocal(2, 4, packFile, dir);
+
+        assertTrue(winner >= 1 && winner <= 4);
+        assertEquals(16, countDeckCards(dir, 4));
+    }
+}
@@ -0,0 +1,29 @@
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+/* Test class for verifying the start gate metrics */
+public class StartMetricsTest {
+
+    // Test that the skew is the spread of the players' start times
+    @Test
+    public void testSkew() {
+        StartMetrics metrics = new StartMetrics(Collections.emptyList(), 500, 1000,
+                new long[] { 1040, 1010, 1100 });
+
+        assertEquals(500, metrics.getSpawnNanos());
+        assertEquals(90, metrics.getSkewNanos());
+        assertEquals(0, metrics.getFirstTurnLatencies().getCount());
+    }
+
+    // Test that a game without players has no skew
+    @Test
+    public void testNoPlayers() {
+        StartMetrics metrics = new StartMetrics(Collections.emptyList(), 0, 0, new long[0]);
+
+        assertEquals(0, metrics.getSkewNanos());
+        assertTrue(metrics.toString().startsWith("players spawned in"));
+    }
+}